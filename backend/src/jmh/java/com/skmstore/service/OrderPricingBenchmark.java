@@ -0,0 +1,226 @@
+package com.skmstore.service;
+
+import com.skmstore.model.Money;
+import com.skmstore.model.OrderItem;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pricing part of placing an order, with {@code lines} request lines: merging the lines per
+ * product, the minimum-order and hold checks, line totals and the order total. The
+ * {@code bigDecimal*} benchmarks replay the code as it was before amounts and weights became
+ * {@link Money} and {@link Quantity}; the {@code fixedPoint*} ones call the current types.
+ * {@code *Core} stops at the total; {@code *EndToEnd} also produces the values bound to the
+ * stock and order-item batches and written to the response, where the fixed-point path has to
+ * convert back to {@link BigDecimal}. Run with {@code -prof gc} for allocations per order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    private static final String[] WEIGHTS = {"0.5", "1", "1.50", "2.5", "3", "5.00", "10", "12.5"};
+    private static final int PRODUCTS = 40;
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private final Map<Long, LegacyProduct> legacyProducts = new TreeMap<>();
+    private final Map<Long, Product> products = new TreeMap<>();
+    private long[] productIds;
+    private BigDecimal[] requestKg;
+
+    /** The product fields the old pricing read, as BigDecimal columns. */
+    private record LegacyProduct(BigDecimal originalPrice, BigDecimal salePrice, BigDecimal minOrderKg) {
+
+        BigDecimal effectivePrice() {
+            return salePrice != null && salePrice.compareTo(originalPrice) < 0 ? salePrice : originalPrice;
+        }
+    }
+
+    /** The old order item's fields; its line total was recomputed on every call. */
+    private static final class LegacyItem {
+        Long id;
+        Object order;
+        Product product;
+        String productName;
+        final BigDecimal quantityKg;
+        final BigDecimal pricePerKg;
+        Boolean stockReconciled = true;
+
+        LegacyItem(BigDecimal quantityKg, BigDecimal pricePerKg) {
+            this.quantityKg = quantityKg;
+            this.pricePerKg = pricePerKg;
+        }
+
+        BigDecimal quantityKg() {
+            return quantityKg;
+        }
+
+        BigDecimal pricePerKg() {
+            return pricePerKg;
+        }
+
+        BigDecimal lineTotal() {
+            return pricePerKg.multiply(quantityKg);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            BigDecimal original = BigDecimal.valueOf(300 + random.nextInt(900));
+            BigDecimal sale = random.nextBoolean() ? original.subtract(BigDecimal.valueOf(random.nextInt(100), 1)) : null;
+            BigDecimal minOrder = new BigDecimal(random.nextBoolean() ? "0.25" : "0.50");
+            legacyProducts.put(id, new LegacyProduct(original, sale, minOrder));
+
+            Product product = new Product();
+            product.setOriginalPrice(Money.ofRupees(original));
+            product.setSalePrice(Money.ofRupees(sale));
+            product.setMinOrderKg(Quantity.ofKilograms(minOrder));
+            products.put(id, product);
+        }
+        productIds = new long[lines];
+        requestKg = new BigDecimal[lines];
+        for (int i = 0; i < lines; i++) {
+            // Some carts name a product twice, so the merge has work to do
+            productIds[i] = 1 + random.nextInt(Math.max(lines * 4 / 5, 1));
+            requestKg[i] = new BigDecimal(WEIGHTS[random.nextInt(WEIGHTS.length)]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalCore() {
+        Map<Long, BigDecimal> quantities = mergeLegacy();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, BigDecimal> line : quantities.entrySet()) {
+            LegacyProduct product = legacyProducts.get(line.getKey());
+            if (line.getValue().compareTo(product.minOrderKg()) < 0
+                    || line.getValue().compareTo(line.getValue()) != 0) {
+                throw new IllegalStateException();
+            }
+            total = total.add(new LegacyItem(line.getValue(), product.effectivePrice()).lineTotal());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money fixedPointCore() {
+        Map<Long, Quantity> quantities = merge();
+        Money total = Money.ZERO;
+        for (Map.Entry<Long, Quantity> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (line.getValue().isLessThan(product.getMinOrderKg()) || !line.getValue().equals(line.getValue())) {
+                throw new IllegalStateException();
+            }
+            total = total.plus(item(line.getValue(), product).getLineTotal());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void bigDecimalEndToEnd(Blackhole blackhole) {
+        Map<Long, BigDecimal> quantities = mergeLegacy();
+        List<LegacyItem> items = new ArrayList<>(quantities.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, BigDecimal> line : quantities.entrySet()) {
+            LegacyProduct product = legacyProducts.get(line.getKey());
+            if (line.getValue().compareTo(product.minOrderKg()) < 0) {
+                throw new IllegalStateException();
+            }
+            LegacyItem item = new LegacyItem(line.getValue(), product.effectivePrice());
+            items.add(item);
+            total = total.add(item.lineTotal());
+        }
+        // Stock decrement binds the weight twice; order items bind weight and price
+        quantities.values().forEach(kg -> {
+            blackhole.consume(kg);
+            blackhole.consume(kg);
+        });
+        for (LegacyItem item : items) {
+            blackhole.consume(item.quantityKg());
+            blackhole.consume(item.pricePerKg());
+        }
+        // Response: every line's total again, then the order total
+        for (LegacyItem item : items) {
+            blackhole.consume(item.quantityKg());
+            blackhole.consume(item.pricePerKg());
+            blackhole.consume(item.lineTotal());
+        }
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public void fixedPointEndToEnd(Blackhole blackhole) {
+        Map<Long, Quantity> quantities = merge();
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        Money total = Money.ZERO;
+        for (Map.Entry<Long, Quantity> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (line.getValue().isLessThan(product.getMinOrderKg())) {
+                throw new IllegalStateException();
+            }
+            OrderItem item = item(line.getValue(), product);
+            items.add(item);
+            total = total.plus(item.getLineTotal());
+        }
+        quantities.values().forEach(quantity -> blackhole.consume(quantity.toKilograms()));
+        for (OrderItem item : items) {
+            blackhole.consume(item.getQuantityKg().toKilograms());
+            blackhole.consume(item.getPricePerKg().toBigDecimal());
+        }
+        for (OrderItem item : items) {
+            blackhole.consume(item.getQuantityKg().toKilograms());
+            blackhole.consume(item.getPricePerKg().toBigDecimal());
+            blackhole.consume(item.getLineTotal().toBigDecimal());
+        }
+        blackhole.consume(total.toBigDecimal());
+    }
+
+    private Map<Long, BigDecimal> mergeLegacy() {
+        Map<Long, BigDecimal> quantities = new TreeMap<>();
+        for (int i = 0; i < lines; i++) {
+            quantities.merge(productIds[i], requestKg[i], BigDecimal::add);
+        }
+        return quantities;
+    }
+
+    private Map<Long, Quantity> merge() {
+        Map<Long, Quantity> quantities = new TreeMap<>();
+        for (int i = 0; i < lines; i++) {
+            quantities.merge(productIds[i], Quantity.ofKilograms(requestKg[i]), Quantity::plus);
+        }
+        return quantities;
+    }
+
+    private static OrderItem item(Quantity quantity, Product product) {
+        OrderItem item = new OrderItem();
+        item.setQuantityKg(quantity);
+        item.setPricePerKg(product.getEffectivePrice());
+        return item;
+    }
+}
@@ -0,0 +1,179 @@
+package com.skmstore.service;
+
+import com.skmstore.SkmStoreApplication;
+import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.model.Address;
+import com.skmstore.model.Money;
+import com.skmstore.model.Order;
+import com.skmstore.model.OrderItem;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.model.PaymentStatus;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import com.skmstore.model.User;
+import com.skmstore.repository.AddressRepository;
+import com.skmstore.repository.OrderBatchRepository;
+import com.skmstore.repository.OrderReadRepository;
+import com.skmstore.repository.ProductRepository;
+import com.skmstore.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reading one page of 10k orders (two items each, spread over 200 customers) by id, as the
+ * admin order listing does once it has found the page's keys. {@code projection} calls
+ * {@link OrderReadRepository#findByIds}, which maps JDBC rows straight into responses;
+ * {@code fetchJoin} replays the entity read it replaced: a fetch join of each order's customer,
+ * address and items, put back in key order and mapped by {@link OrderService#toResponse}. Both
+ * run in a read-only transaction, as the listing does, against the application on an in-memory
+ * H2 database. Run with {@code -prof gc} for allocations per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// The fetch join only settles after about five iterations
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReadBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int CUSTOMERS = 200;
+    private static final int ITEMS_PER_ORDER = 2;
+    // The query OrderRepository.findAllWithDetailsByIdIn ran before order reads became projections
+    private static final String FETCH_JOIN = "SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user "
+            + "LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.id IN :ids";
+
+    private ConfigurableApplicationContext context;
+    private OrderReadRepository orderReadRepository;
+    private OrderService orderService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SkmStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:order-read-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        orderReadRepository = context.getBean(OrderReadRepository.class);
+        orderService = context.getBean(OrderService.class);
+        entityManager = context.getBean(EntityManager.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        ids = transactionTemplate.execute(status -> seed());
+        // The listing passes the page's ids newest first, the order insertOrders returned them in
+        ids = ids.reversed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderResponse> projection() {
+        return readOnly.execute(status -> orderReadRepository.findByIds(ids));
+    }
+
+    @Benchmark
+    public List<OrderResponse> fetchJoin() {
+        return readOnly.execute(status -> {
+            Map<Long, Order> byId = entityManager.createQuery(FETCH_JOIN, Order.class)
+                    .setParameter("ids", ids)
+                    .getResultList().stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+            List<OrderResponse> orders = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Order order = byId.get(id);
+                if (order != null) {
+                    orders.add(orderService.toResponse(order));
+                }
+            }
+            return orders;
+        });
+    }
+
+    private List<Long> seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AddressRepository addressRepository = context.getBean(AddressRepository.class);
+        OrderBatchRepository orderBatchRepository = context.getBean(OrderBatchRepository.class);
+        List<Product> products = context.getBean(ProductRepository.class).findAll();
+
+        List<Address> addresses = new ArrayList<>(CUSTOMERS);
+        for (int c = 0; c < CUSTOMERS; c++) {
+            User user = new User();
+            user.setName("Customer " + c);
+            user.setPhone(String.valueOf(7_000_000_000L + c));
+            user.setEmail("customer" + c + "@example.com");
+            user = userRepository.save(user);
+
+            Address address = new Address();
+            address.setUser(user);
+            address.setFullName(user.getName());
+            address.setPhone(user.getPhone());
+            address.setAddressLine(c + " Mango Grove Road");
+            address.setCity("Vijayawada");
+            address.setState("Andhra Pradesh");
+            address.setPincode("520001");
+            addresses.add(addressRepository.save(address));
+        }
+
+        Random random = new Random(42);
+        List<OrderBatchRepository.NewOrder> orders = new ArrayList<>(ORDERS);
+        List<List<OrderItem>> items = new ArrayList<>(ORDERS);
+        for (int o = 0; o < ORDERS; o++) {
+            List<OrderItem> lines = new ArrayList<>(ITEMS_PER_ORDER);
+            Money total = Money.ZERO;
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                Product product = products.get(random.nextInt(products.size()));
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setProductName(product.getName());
+                item.setQuantityKg(Quantity.ofKilograms(BigDecimal.valueOf(1 + random.nextInt(10), 1).add(BigDecimal.ONE)));
+                item.setPricePerKg(product.getEffectivePrice());
+                lines.add(item);
+                total = total.plus(item.getLineTotal());
+            }
+            Address address = addresses.get(o % CUSTOMERS);
+            orders.add(new OrderBatchRepository.NewOrder(address.getUser().getId(), address.getId(), total,
+                    OrderStatus.CONFIRMED, PaymentStatus.PAID));
+            items.add(lines);
+        }
+        List<Long> orderIds = orderBatchRepository.insertOrders(orders, LocalDateTime.now());
+        Map<Long, List<OrderItem>> itemsByOrderId = new LinkedHashMap<>();
+        for (int o = 0; o < ORDERS; o++) {
+            itemsByOrderId.put(orderIds.get(o), items.get(o));
+        }
+        orderBatchRepository.insertItems(itemsByOrderId);
+        return orderIds;
+    }
+}
@@ -0,0 +1,128 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search over a synthetic catalog whose names and descriptions use {@code terms} distinct words,
+ * built from the syllables of romanised mango and place names. Queries are a typed prefix, a
+ * one-letter typo and a transliteration variant of catalog words, and the index build itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"al", "phon", "so", "ban", "ga", "na", "pal", "li", "ke", "sar",
+            "to", "ta", "pu", "ri", "hi", "mam", "la", "dha", "sin", "du", "ri", "ma", "lgo", "va", "kha", "ja",
+            "ee", "roo", "wa", "bh", "ra", "tna", "gi", "che", "nnai", "sa", "lem", "kri", "shna"};
+    private static final int WORDS_PER_PRODUCT = 8;
+    // The synthetic words contain no mango aliases
+    private static final SearchSynonyms SYNONYMS = new SearchSynonyms("");
+    private static final int QUERIES = 64;
+
+    @Param({"10000", "50000"})
+    public int terms;
+
+    private List<ProductResponse> products;
+    private ProductSearchIndex index;
+    private String[] prefixQueries;
+    private String[] typoQueries;
+    private String[] variantQueries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Set<String> vocabulary = new LinkedHashSet<>();
+        while (vocabulary.size() < terms) {
+            StringBuilder word = new StringBuilder();
+            for (int syllables = 2 + random.nextInt(3); syllables > 0; syllables--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary.add(word.toString());
+        }
+        List<String> words = new ArrayList<>(vocabulary);
+
+        // Every word lands in at least one product: two in the name, the rest in the description
+        products = new ArrayList<>();
+        for (int i = 0; i < words.size(); i += WORDS_PER_PRODUCT) {
+            List<String> productWords = words.subList(i, Math.min(i + WORDS_PER_PRODUCT, words.size()));
+            ProductResponse product = new ProductResponse();
+            product.setId((long) products.size() + 1);
+            product.setName(String.join(" ", productWords.subList(0, Math.min(2, productWords.size()))));
+            product.setDescription(String.join(" ", productWords));
+            products.add(product);
+        }
+        index = ProductSearchIndex.build(products, SYNONYMS, null);
+
+        prefixQueries = new String[QUERIES];
+        typoQueries = new String[QUERIES];
+        variantQueries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            prefixQueries[i] = word.substring(0, Math.min(4, word.length()));
+            char[] typo = word.toCharArray();
+            typo[typo.length / 2] = typo[typo.length / 2] == 'x' ? 'q' : 'x';
+            typoQueries[i] = new String(typo);
+            variantQueries[i] = respelled(words, random);
+        }
+    }
+
+    // A catalog word written the other common way: f for ph, v for w, i for ee, b for bh, ...
+    private static String respelled(List<String> words, Random random) {
+        while (true) {
+            String word = words.get(random.nextInt(words.size()));
+            String variant = word.replace("ph", "f").replace("w", "v").replace("ee", "i").replace("oo", "u")
+                    .replace("bh", "b").replace("dh", "d").replace("kh", "k");
+            if (!variant.equals(word)) {
+                return variant;
+            }
+        }
+    }
+
+    @Benchmark
+    public ProductSearchIndex buildIndex() {
+        return ProductSearchIndex.build(products, SYNONYMS, null);
+    }
+
+    @Benchmark
+    public List<Integer> prefixSearch() {
+        return index.search(prefixQueries[nextQuery()], 50);
+    }
+
+    @Benchmark
+    public List<Integer> typoSearch() {
+        return index.search(typoQueries[nextQuery()], 50);
+    }
+
+    @Benchmark
+    public List<Integer> transliterationSearch() {
+        return index.search(variantQueries[nextQuery()], 50);
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+}
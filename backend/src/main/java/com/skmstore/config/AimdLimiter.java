@@ -0,0 +1,87 @@
+package com.skmstore.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit. While responses stay under the
+ * latency target and the limit is actually being used, it grows by one per response; a slow or
+ * failed response cuts it by {@code BACKOFF}. Requests over the limit are refused, not queued.
+ */
+final class AimdLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return true;
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyTargetNanos) {
+            decrease();
+        } else if (current * 2 >= limit) {
+            // Only grow while at least half the limit is in use; an idle limit proves nothing
+            increase();
+        }
+    }
+
+    /**
+     * Frees a slot without a latency sample, for a response whose duration says nothing about
+     * load (a long stream); only a failure moves the limit.
+     */
+    void releaseUnsampled(boolean failed) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            decrease();
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getAccepted() {
+        return accepted.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * BACKOFF);
+    }
+}
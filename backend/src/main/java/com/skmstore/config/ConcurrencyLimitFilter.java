@@ -0,0 +1,195 @@
+package com.skmstore.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.dto.response.ApiResponse;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent requests per route group with an {@link AimdLimiter}, so a burst on one group
+ * (admin exports, order retries) cannot take every pooled connection from the others. Requests
+ * over the limit get 503 with {@code Retry-After} at once instead of waiting for a timeout.
+ * Runs after the security chain, so unauthenticated requests never take a slot. A response
+ * written asynchronously (a streamed export or list) keeps its slot until it completes, but
+ * its duration is not taken as a latency sample: only an error or timeout lowers the limit.
+ * Each group is tuned with {@code app.limits.<group>.initial|min|max|latency-ms}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    enum RouteGroup {
+        CATALOG("catalog", 100, 10, 1000, 250),
+        ORDERS("orders", 20, 4, 200, 1000),
+        ADMIN("admin", 8, 2, 50, 5000),
+        AUTH("auth", 20, 4, 100, 1000);
+
+        private final String key;
+        private final int initial;
+        private final int min;
+        private final int max;
+        private final long latencyMs;
+
+        RouteGroup(String key, int initial, int min, int max, long latencyMs) {
+            this.key = key;
+            this.initial = initial;
+            this.min = min;
+            this.max = max;
+            this.latencyMs = latencyMs;
+        }
+
+        static RouteGroup of(String path) {
+            if (path.startsWith("/api/admin")) {
+                return ADMIN;
+            }
+            if (path.startsWith("/api/orders")) {
+                return ORDERS;
+            }
+            if (path.startsWith("/api/auth")) {
+                return AUTH;
+            }
+            if (path.startsWith("/api/products") || path.startsWith("/api/settings")) {
+                return CATALOG;
+            }
+            return null;
+        }
+    }
+
+    public record LimitSnapshot(String group, int limit, int inFlight, long accepted, long rejected) {}
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<RouteGroup, AimdLimiter> limiters = new EnumMap<>(RouteGroup.class);
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, Environment environment) {
+        this.objectMapper = objectMapper;
+        this.enabled = environment.getProperty("app.limits.enabled", Boolean.class, true);
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "app.limits." + group.key + ".";
+            limiters.put(group, new AimdLimiter(
+                    environment.getProperty(prefix + "initial", Integer.class, group.initial),
+                    environment.getProperty(prefix + "min", Integer.class, group.min),
+                    environment.getProperty(prefix + "max", Integer.class, group.max),
+                    TimeUnit.MILLISECONDS.toNanos(
+                            environment.getProperty(prefix + "latency-ms", Long.class, group.latencyMs))));
+        }
+    }
+
+    public List<LimitSnapshot> snapshot() {
+        List<LimitSnapshot> snapshot = new ArrayList<>();
+        limiters.forEach((group, limiter) -> snapshot.add(new LimitSnapshot(group.key, limiter.getLimit(),
+                limiter.getInFlight(), limiter.getAccepted(), limiter.getRejected())));
+        return snapshot;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = RouteGroup.of(request.getRequestURI());
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AimdLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The body is still being written on another thread. The async re-dispatch skips
+                // this filter, so the slot is handed to a listener on the async context instead.
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter));
+            } else {
+                limiter.releaseUnsampled(failed);
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of an asynchronous response exactly once, when it completes, fails or
+     * times out; the container may report an error or timeout and then the completion. A stream
+     * runs as long as the client takes to read it, so its duration is no latency sample.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AimdLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AimdLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // A streamed list that fails part way has already committed its 200, so the
+            // exception resolved on the async dispatch is what marks it as failed
+            boolean failed = ((HttpServletResponse) event.getSuppliedResponse()).getStatus() >= 500
+                    || event.getSuppliedRequest().getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) != null;
+            release(failed);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.releaseUnsampled(failed);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("We are very busy right now, please try again in a moment"));
+    }
+}
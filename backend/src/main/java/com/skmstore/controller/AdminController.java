@@ -1,20 +1,32 @@
 package com.skmstore.controller;
 
+import com.skmstore.config.ConcurrencyLimitFilter;
+import com.skmstore.dto.request.ExportJobRequest;
 import com.skmstore.dto.request.ProductRequest;
 import com.skmstore.dto.response.ApiResponse;
 import com.skmstore.dto.response.DashboardResponse;
+import com.skmstore.dto.response.ExportJobResponse;
+import com.skmstore.dto.response.OrderPageResponse;
 import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.dto.response.PreOrderAllocationResponse;
 import com.skmstore.dto.response.ProductResponse;
+import com.skmstore.exception.BusinessException;
 import com.skmstore.model.OrderStatus;
-import com.skmstore.model.User;
 import com.skmstore.service.*;
 import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,17 +37,32 @@ public class AdminController {
     private final UserService userService;
     private final SettingsService settingsService;
     private final DashboardService dashboardService;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final PreOrderAllocationService preOrderAllocationService;
+    private final CsvExportService csvExportService;
+    private final ExportJobService exportJobService;
+    private final JsonListService jsonListService;
 
     public AdminController(ProductService productService,
                            OrderService orderService,
                            UserService userService,
                            SettingsService settingsService,
-                           DashboardService dashboardService) {
+                           DashboardService dashboardService,
+                           ConcurrencyLimitFilter concurrencyLimitFilter,
+                           PreOrderAllocationService preOrderAllocationService,
+                           CsvExportService csvExportService,
+                           ExportJobService exportJobService,
+                           JsonListService jsonListService) {
         this.productService = productService;
         this.orderService = orderService;
         this.userService = userService;
         this.settingsService = settingsService;
         this.dashboardService = dashboardService;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.preOrderAllocationService = preOrderAllocationService;
+        this.csvExportService = csvExportService;
+        this.exportJobService = exportJobService;
+        this.jsonListService = jsonListService;
     }
 
     // ==================== DASHBOARD ====================
@@ -50,18 +77,25 @@ public class AdminController {
     public ResponseEntity<ApiResponse> getDashboardByRange(
             @RequestParam("from") String from,
             @RequestParam("to") String to) {
-        java.time.LocalDate fromDate = java.time.LocalDate.parse(from);
-        java.time.LocalDate toDate = java.time.LocalDate.parse(to);
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
         DashboardResponse dashboard = dashboardService.getStatsByDateRange(fromDate, toDate);
         return ResponseEntity.ok(ApiResponse.success("Dashboard data for range", dashboard));
     }
 
+    /**
+     * Current adaptive concurrency limit, in-flight count and accepted/rejected totals per route group.
+     */
+    @GetMapping("/limits")
+    public ResponseEntity<ApiResponse> getConcurrencyLimits() {
+        return ResponseEntity.ok(ApiResponse.success("Concurrency limits", concurrencyLimitFilter.snapshot()));
+    }
+
     // ==================== PRODUCTS ====================
 
     @GetMapping("/products")
-    public ResponseEntity<ApiResponse> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(ApiResponse.success("All products", products));
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        return streamJson(out -> jsonListService.writeProducts("All products", out));
     }
 
     @PostMapping("/products")
@@ -78,6 +112,19 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success("Product updated", product));
     }
 
+    @PostMapping(value = "/products/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse> uploadProductImage(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new BusinessException("Image file is empty");
+        }
+        try (InputStream in = file.getInputStream()) {
+            ProductResponse product = productService.updateImage(id, in);
+            return ResponseEntity.ok(ApiResponse.success("Product image updated", product));
+        }
+    }
+
     @DeleteMapping("/products/{id}")
     public ResponseEntity<ApiResponse> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
@@ -102,37 +149,40 @@ public class AdminController {
 
     @GetMapping("/orders")
     public ResponseEntity<ApiResponse> getAllOrders(
-            @RequestParam(required = false) String status) {
-        List<OrderResponse> orders;
-        if (status != null && !status.isBlank()) {
-            orders = orderService.getOrdersByStatus(OrderStatus.valueOf(status.toUpperCase()));
-        } else {
-            orders = orderService.getAllOrders();
-        }
-        return ResponseEntity.ok(ApiResponse.success("Orders retrieved", orders));
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        OrderPageResponse page = orderService.getOrderPage(
+                status != null && !status.isBlank() ? OrderStatus.valueOf(status.toUpperCase()) : null,
+                from != null && !from.isBlank() ? LocalDate.parse(from) : null,
+                to != null && !to.isBlank() ? LocalDate.parse(to) : null,
+                cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved", page));
     }
 
     @GetMapping("/orders/today")
-    public ResponseEntity<ApiResponse> getTodaysOrders(
+    public ResponseEntity<StreamingResponseBody> getTodaysOrders(
             @RequestParam(required = false) String status) {
-        List<OrderResponse> orders;
-        if (status != null && !status.isBlank()) {
-            orders = orderService.getTodaysOrdersByStatus(OrderStatus.valueOf(status.toUpperCase()));
-        } else {
-            orders = orderService.getTodaysOrders();
-        }
-        return ResponseEntity.ok(ApiResponse.success("Today's orders", orders));
+        OrderStatus orderStatus = status != null && !status.isBlank()
+                ? OrderStatus.valueOf(status.toUpperCase()) : null;
+        LocalDate today = LocalDate.now();
+        return streamJson(out -> jsonListService.writeOrdersPlacedOn(today, orderStatus, "Today's orders", out));
     }
 
     @GetMapping("/orders/by-date")
-    public ResponseEntity<ApiResponse> getOrdersByDate(@RequestParam String date) {
-        List<OrderResponse> orders = orderService.getOrdersByDate(date);
-        return ResponseEntity.ok(ApiResponse.success("Orders for " + date, orders));
+    public ResponseEntity<StreamingResponseBody> getOrdersByDate(@RequestParam String date) {
+        LocalDate day = LocalDate.parse(date);
+        return streamJson(out -> jsonListService.writeOrdersPlacedOn(day, null, "Orders for " + date, out));
     }
 
     @GetMapping("/orders/by-date/export")
-    public ResponseEntity<String> exportOrdersByDate(@RequestParam String date) {
-        return exportOrdersCsv(orderService.getOrdersByDate(date), "orders-" + date + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportOrdersByDate(
+            @RequestParam String date,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        LocalDate day = LocalDate.parse(date);
+        return exportOrdersCsv(day, day, "orders-" + date + ".csv", gzip);
     }
 
     @GetMapping("/orders/{id}")
@@ -160,71 +210,121 @@ public class AdminController {
     }
 
     @GetMapping("/orders/today/export")
-    public ResponseEntity<String> exportTodaysOrders() {
-        return exportOrdersCsv(orderService.getTodaysOrders(), "orders-today.csv");
+    public ResponseEntity<StreamingResponseBody> exportTodaysOrders(
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportOrdersCsv(LocalDate.now(), LocalDate.now(), "orders-today.csv", gzip);
     }
 
     @GetMapping("/orders/export")
-    public ResponseEntity<String> exportAllOrders() {
-        return exportOrdersCsv(orderService.getAllOrders(), "orders-all.csv");
-    }
-
-    private ResponseEntity<String> exportOrdersCsv(List<OrderResponse> orders, String filename) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Order ID,Date,Customer,Phone,Full Address,City,State,Pincode,Items,Total,Status,Courier,Tracking\n");
-
-        for (OrderResponse order : orders) {
-            String items = order.getItems().stream()
-                    .map(i -> i.getProductName() + " " + i.getQuantityKg() + "kg")
-                    .collect(Collectors.joining(" | "));
-
-            OrderResponse.AddressInfo addr = order.getAddress();
-            String fullAddress = String.join(", ",
-                    addr.getFullName() != null ? addr.getFullName() : "",
-                    addr.getAddressLine() != null ? addr.getAddressLine() : "",
-                    addr.getCity() != null ? addr.getCity() : "",
-                    addr.getState() != null ? addr.getState() : "",
-                    addr.getPincode() != null ? addr.getPincode() : "");
-
-            csv.append(String.format("%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%.2f,%s,\"%s\",\"%s\"\n",
-                    order.getId(),
-                    order.getOrderDate() != null ? order.getOrderDate().toString() : "",
-                    order.getCustomer().getName(),
-                    order.getCustomer().getPhone(),
-                    fullAddress,
-                    addr.getCity() != null ? addr.getCity() : "",
-                    addr.getState() != null ? addr.getState() : "",
-                    addr.getPincode() != null ? addr.getPincode() : "",
-                    items,
-                    order.getTotalAmount(),
-                    order.getStatus(),
-                    order.getCourierName() != null ? order.getCourierName() : "",
-                    order.getTrackingId() != null ? order.getTrackingId() : ""));
-        }
+    public ResponseEntity<StreamingResponseBody> exportAllOrders(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportOrdersCsv(from != null && !from.isBlank() ? LocalDate.parse(from) : null,
+                to != null && !to.isBlank() ? LocalDate.parse(to) : null, "orders-all.csv", gzip);
+    }
+
+    /**
+     * Streams the CSV as it is read from the database; {@code gzip=true} sends it compressed.
+     */
+    private ResponseEntity<StreamingResponseBody> exportOrdersCsv(LocalDate from, LocalDate to,
+                                                                  String filename, boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    csvExportService.writeOrdersCsv(from, to, compressed);
+                }
+            } else {
+                csvExportService.writeOrdersCsv(from, to, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .header("Content-Type", gzip ? "application/gzip" : "text/csv")
+                .header("Content-Disposition", "attachment; filename=" + filename + (gzip ? ".gz" : ""))
+                .body(body);
+    }
 
+    /**
+     * Sends a long list in the usual {@code ApiResponse} shape, written as it is read.
+     */
+    private ResponseEntity<StreamingResponseBody> streamJson(StreamingResponseBody body) {
         return ResponseEntity.ok()
-                .header("Content-Type", "text/csv")
-                .header("Content-Disposition", "attachment; filename=" + filename)
-                .body(csv.toString());
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // ==================== EXPORT JOBS ====================
+
+    @PostMapping("/exports")
+    public ResponseEntity<ApiResponse> submitExport(@Valid @RequestBody ExportJobRequest request) {
+        ExportJobResponse job = exportJobService.submit(request.getType(), request.getFrom(), request.getTo());
+        return ResponseEntity.ok(ApiResponse.success("Export started", job));
+    }
+
+    @GetMapping("/exports")
+    public ResponseEntity<ApiResponse> getExports() {
+        return ResponseEntity.ok(ApiResponse.success("Exports retrieved", exportJobService.getJobs()));
+    }
+
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<ApiResponse> getExport(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success("Export status", exportJobService.getJob(id)));
+    }
+
+    @GetMapping("/exports/{id}/download")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String id) {
+        Resource file = new FileSystemResource(exportJobService.getFile(id));
+        return ResponseEntity.ok()
+                .header("Content-Type", "application/gzip")
+                .header("Content-Disposition", "attachment; filename=" + exportJobService.getFileName(id))
+                .body(file);
+    }
+
+    @DeleteMapping("/exports/{id}")
+    public ResponseEntity<ApiResponse> cancelExport(@PathVariable String id) {
+        exportJobService.cancel(id);
+        return ResponseEntity.ok(ApiResponse.success("Export cancelled"));
+    }
+
+    // ==================== PRE-ORDERS ====================
+
+    @GetMapping("/pre-orders/summary")
+    public ResponseEntity<ApiResponse> getPreOrderSummary() {
+        return ResponseEntity.ok(ApiResponse.success("Pre-order summary", orderService.getPreOrderSummary()));
+    }
+
+    /**
+     * Runs the allocation now; it also runs by itself when the season opens.
+     */
+    @PostMapping("/pre-orders/allocate")
+    public ResponseEntity<ApiResponse> allocatePreOrders() {
+        if (!settingsService.isSeasonActive()) {
+            throw new BusinessException("Open the season before allocating pre-orders");
+        }
+        PreOrderAllocationResponse result = preOrderAllocationService.allocate();
+        String message = result.getStillQueued() > 0
+                ? result.getStillQueued() + " pre-orders are still queued; run the allocation again"
+                : "Pre-orders allocated";
+        return ResponseEntity.ok(ApiResponse.success(message, result));
+    }
+
+    @PutMapping("/pre-orders/{id}/priority")
+    public ResponseEntity<ApiResponse> updatePreOrderPriority(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> body) {
+        Integer priority = body.get("priority");
+        if (priority == null) {
+            throw new BusinessException("priority is required");
+        }
+        orderService.updatePreOrderPriority(id, priority);
+        return ResponseEntity.ok(ApiResponse.success("Pre-order priority updated"));
     }
 
     // ==================== USERS ====================
 
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<Map<String, Object>> userList = users.stream().map(u -> {
-            Map<String, Object> map = new java.util.HashMap<>();
-            map.put("id", u.getId());
-            map.put("name", u.getName());
-            map.put("phone", u.getPhone() != null ? u.getPhone() : "");
-            map.put("email", u.getEmail() != null ? u.getEmail() : "");
-            map.put("role", u.getRole().name());
-            map.put("active", u.getActive());
-            map.put("createdAt", u.getCreatedAt().toString());
-            return map;
-        }).collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Users retrieved", userList));
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        return streamJson(out -> jsonListService.writeUsers("Users retrieved", out));
     }
 
     @PutMapping("/users/{id}/promote")
@@ -1,10 +1,18 @@
 package com.skmstore.controller;
 
+import com.skmstore.dto.request.OrderPaymentRequest;
 import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.request.PreOrderRequest;
+import com.skmstore.dto.request.StockHoldRequest;
 import com.skmstore.dto.response.ApiResponse;
 import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.dto.response.OrderTicketResponse;
+import com.skmstore.dto.response.PreOrderResponse;
+import com.skmstore.dto.response.StockHoldResponse;
 import com.skmstore.security.JwtUtil;
+import com.skmstore.service.OrderIntakeService;
 import com.skmstore.service.OrderService;
+import com.skmstore.service.WaitingRoomService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,22 +24,92 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final WaitingRoomService waitingRoomService;
     private final JwtUtil jwtUtil;
 
-    public OrderController(OrderService orderService, JwtUtil jwtUtil) {
+    public OrderController(OrderService orderService,
+                           OrderIntakeService orderIntakeService,
+                           WaitingRoomService waitingRoomService,
+                           JwtUtil jwtUtil) {
         this.orderService = orderService;
+        this.orderIntakeService = orderIntakeService;
+        this.waitingRoomService = waitingRoomService;
         this.jwtUtil = jwtUtil;
     }
 
     @PostMapping
     public ResponseEntity<ApiResponse> placeOrder(
             @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = WaitingRoomService.TOKEN_HEADER, required = false) String queueToken,
             @Valid @RequestBody PlaceOrderRequest request) {
         Long userId = extractUserId(authHeader);
-        OrderResponse order = orderService.placeOrder(userId, request);
+        waitingRoomService.checkAdmitted(userId, queueToken);
+        if (orderIntakeService.isEnabled()) {
+            // Intake mode: journaled and placed by a worker; the client polls the ticket
+            OrderTicketResponse ticket = orderIntakeService.submit(userId, request, idempotencyKey);
+            return ResponseEntity.accepted().body(ApiResponse.success("Order received", ticket));
+        }
+        OrderResponse order = orderService.placeOrder(userId, request, idempotencyKey);
         return ResponseEntity.ok(ApiResponse.success("Order placed successfully", order));
     }
 
+    /**
+     * Off-season booking; it becomes an order when the season opens and stock is allocated.
+     */
+    @PostMapping("/pre-orders")
+    public ResponseEntity<ApiResponse> placePreOrder(
+            @RequestHeader("Authorization") String authHeader,
+            @Valid @RequestBody PreOrderRequest request) {
+        PreOrderResponse preOrder = orderService.placePreOrder(extractUserId(authHeader), request);
+        return ResponseEntity.ok(ApiResponse.success("Pre-order booked", preOrder));
+    }
+
+    @GetMapping("/pre-orders")
+    public ResponseEntity<ApiResponse> getMyPreOrders(@RequestHeader("Authorization") String authHeader) {
+        List<PreOrderResponse> preOrders = orderService.getUserPreOrders(extractUserId(authHeader));
+        return ResponseEntity.ok(ApiResponse.success("Pre-orders retrieved", preOrders));
+    }
+
+    @DeleteMapping("/pre-orders/{preOrderId}")
+    public ResponseEntity<ApiResponse> cancelPreOrder(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable Long preOrderId) {
+        orderService.cancelPreOrder(extractUserId(authHeader), preOrderId);
+        return ResponseEntity.ok(ApiResponse.success("Pre-order cancelled"));
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<ApiResponse> getTicket(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String ticketId) {
+        OrderTicketResponse ticket = orderIntakeService.getTicket(extractUserId(authHeader), ticketId);
+        return ResponseEntity.ok(ApiResponse.success("Ticket retrieved", ticket));
+    }
+
+    /**
+     * Holds stock for the cart while the customer pays; pass the returned holdId when placing the order.
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<ApiResponse> holdStock(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = WaitingRoomService.TOKEN_HEADER, required = false) String queueToken,
+            @Valid @RequestBody StockHoldRequest request) {
+        Long userId = extractUserId(authHeader);
+        waitingRoomService.checkAdmitted(userId, queueToken);
+        StockHoldResponse hold = orderService.holdStock(userId, request);
+        return ResponseEntity.ok(ApiResponse.success("Stock held", hold));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<ApiResponse> releaseStockHold(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String holdId) {
+        orderService.releaseStockHold(extractUserId(authHeader), holdId);
+        return ResponseEntity.ok(ApiResponse.success("Stock hold released"));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse> getMyOrders(
             @RequestHeader("Authorization") String authHeader) {
@@ -48,6 +126,18 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Order retrieved", order));
     }
 
+    /**
+     * Pays for an order placed without payment (an allocated pre-order) and confirms it.
+     */
+    @PostMapping("/{id}/pay")
+    public ResponseEntity<ApiResponse> payForOrder(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable Long id,
+            @Valid @RequestBody OrderPaymentRequest request) {
+        OrderResponse order = orderService.payForOrder(extractUserId(authHeader), id, request);
+        return ResponseEntity.ok(ApiResponse.success("Payment received, order confirmed", order));
+    }
+
     private Long extractUserId(String authHeader) {
         String token = authHeader.replace("Bearer ", "");
         return jwtUtil.getUserIdFromToken(token);
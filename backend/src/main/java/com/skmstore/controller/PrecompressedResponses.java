@@ -0,0 +1,35 @@
+package com.skmstore.controller;
+
+import com.skmstore.service.PrecompressedBody;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds responses for {@link PrecompressedBody} payloads. The strong ETag and Last-Modified
+ * let Spring answer {@code If-None-Match} / {@code If-Modified-Since} with 304 straight from
+ * memory; {@code no-cache} makes browsers revalidate instead of guessing a freshness lifetime.
+ */
+final class PrecompressedResponses {
+
+    private PrecompressedResponses() {
+    }
+
+    static ResponseEntity<byte[]> ok(PrecompressedBody body, String acceptEncoding, long lastModified) {
+        PrecompressedBody.Variant variant = body.select(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(variant.bytes().length)
+                .cacheControl(CacheControl.noCache())
+                .eTag(variant.etag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (lastModified > 0) {
+            response.lastModified(lastModified);
+        }
+        if (variant.contentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.contentEncoding());
+        }
+        return response.body(variant.bytes());
+    }
+}
@@ -1,38 +1,156 @@
 package com.skmstore.controller;
 
 import com.skmstore.dto.response.ApiResponse;
+import com.skmstore.dto.response.ProductFilterResponse;
 import com.skmstore.dto.response.ProductResponse;
+import com.skmstore.dto.response.ProductSuggestionResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.exception.ResourceNotFoundException;
+import com.skmstore.service.CatalogSnapshot;
+import com.skmstore.service.ImageDerivativeService;
+import com.skmstore.service.ImageStore;
+import com.skmstore.service.ImageVariant;
 import com.skmstore.service.ProductService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ImageStore imageStore,
+                             ImageDerivativeService imageDerivativeService) {
         this.productService = productService;
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
     }
 
+    /**
+     * Writes the catalog's pre-serialized, pre-compressed bytes as-is; nothing is encoded per request.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllProducts() {
-        List<ProductResponse> products = productService.getAllActiveProducts();
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved", products));
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogSnapshot catalog = productService.getCatalog();
+        return PrecompressedResponses.ok(catalog.getActiveProductsBody(), acceptEncoding, catalog.getLastModified());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getProduct(@PathVariable Long id) {
-        ProductResponse product = productService.getProduct(id);
-        return ResponseEntity.ok(ApiResponse.success("Product retrieved", product));
+    public ResponseEntity<byte[]> getProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogSnapshot catalog = productService.getCatalog();
+        ProductResponse product = catalog.getProduct(id);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return PrecompressedResponses.ok(catalog.getProductBody(id), acceptEncoding,
+                CatalogSnapshot.lastModified(product));
     }
 
+    /**
+     * Ranked search over the in-memory catalog index. Typeahead mode returns a few compact
+     * suggestions for the search box instead of full products.
+     */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchProducts(@RequestParam String q) {
-        List<ProductResponse> products = productService.searchProducts(q);
+    public ResponseEntity<ApiResponse> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean typeahead,
+            @RequestParam(required = false) Integer limit) {
+        int max = Math.min(Math.max(limit != null ? limit : (typeahead ? 8 : 50), 1), 100);
+        List<ProductResponse> products = productService.searchProducts(q, max);
+        if (typeahead) {
+            List<ProductSuggestionResponse> suggestions = products.stream()
+                    .map(ProductSuggestionResponse::new)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success("Suggestions", suggestions));
+        }
         return ResponseEntity.ok(ApiResponse.success("Search results", products));
     }
+
+    /**
+     * Faceted filter over active products. {@code attr} is repeated as {@code key:value}; values
+     * of one key are alternatives, different keys must all match. {@code price} takes band keys
+     * such as {@code 300-500}.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse> filterProducts(
+            @RequestParam(required = false) List<String> attr,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(defaultValue = "false") boolean inStock) {
+        Map<String, Set<String>> attributes = new LinkedHashMap<>();
+        if (attr != null) {
+            for (String pair : attr) {
+                int separator = pair.indexOf(':');
+                if (separator <= 0) {
+                    throw new BusinessException("Attribute filter must be key:value, got: " + pair);
+                }
+                attributes.computeIfAbsent(pair.substring(0, separator), k -> new LinkedHashSet<>())
+                        .add(pair.substring(separator + 1));
+            }
+        }
+        Set<String> priceBands = price != null ? new LinkedHashSet<>(price) : Set.of();
+        ProductFilterResponse result = productService.filterProducts(attributes, priceBands, inStock);
+        return ResponseEntity.ok(ApiResponse.success("Filtered products", result));
+    }
+
+    /**
+     * Streams an image from the content-addressed store. The hash in the URL pins the bytes,
+     * so browsers and CDNs may cache the response forever. Only the product's current image is
+     * served under its id.
+     */
+    @GetMapping("/{id}/image/{hash}")
+    public ResponseEntity<Resource> getProductImage(
+            @PathVariable Long id,
+            @PathVariable String hash,
+            @RequestParam(required = false) String size) {
+        if (!productService.hasImage(id, hash)) {
+            throw new ResourceNotFoundException("Image not found");
+        }
+        if (size != null) {
+            ImageVariant variant = ImageVariant.fromKey(size)
+                    .orElseThrow(() -> new BusinessException("Unknown image size: " + size));
+            Optional<ImageStore.StoredImage> derivative = imageStore.findVariant(hash, variant);
+            if (derivative.isPresent()) {
+                return imageResponse(derivative.get(), hash + "-" + variant.key(),
+                        CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+            }
+            // Not generated yet: serve the original briefly so the browser retries later
+            ImageStore.StoredImage original = imageStore.find(hash)
+                    .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+            imageDerivativeService.generateAsync(hash);
+            return imageResponse(original, hash, CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic());
+        }
+
+        ImageStore.StoredImage image = imageStore.find(hash)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        return imageResponse(image, hash, CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+
+    private ResponseEntity<Resource> imageResponse(ImageStore.StoredImage image, String etag, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .contentLength(image.size())
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(new FileSystemResource(image.path()));
+    }
 }
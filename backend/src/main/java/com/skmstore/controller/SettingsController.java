@@ -1,14 +1,13 @@
 package com.skmstore.controller;
 
-import com.skmstore.dto.response.ApiResponse;
 import com.skmstore.service.SettingsService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api/settings")
 public class SettingsController {
@@ -20,8 +19,9 @@ public class SettingsController {
     }
 
     @GetMapping("/public")
-    public ResponseEntity<ApiResponse> getPublicSettings() {
-        Map<String, String> settings = settingsService.getPublicSettings();
-        return ResponseEntity.ok(ApiResponse.success("Settings retrieved", settings));
+    public ResponseEntity<byte[]> getPublicSettings(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Settings have no timestamps, so revalidation relies on the ETag alone
+        return PrecompressedResponses.ok(settingsService.getPublicSettingsBody(), acceptEncoding, -1);
     }
 }
@@ -0,0 +1,38 @@
+package com.skmstore.controller;
+
+import com.skmstore.dto.response.ApiResponse;
+import com.skmstore.dto.response.WaitingRoomResponse;
+import com.skmstore.security.JwtUtil;
+import com.skmstore.service.WaitingRoomService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+    private final JwtUtil jwtUtil;
+
+    public WaitingRoomController(WaitingRoomService waitingRoomService, JwtUtil jwtUtil) {
+        this.waitingRoomService = waitingRoomService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @PostMapping("/join")
+    public ResponseEntity<ApiResponse> join(@RequestHeader("Authorization") String authHeader) {
+        WaitingRoomResponse place = waitingRoomService.join(extractUserId(authHeader));
+        return ResponseEntity.ok(ApiResponse.success("Joined the queue", place));
+    }
+
+    @GetMapping("/position")
+    public ResponseEntity<ApiResponse> getPosition(
+            @RequestHeader(value = WaitingRoomService.TOKEN_HEADER, required = false) String token) {
+        return ResponseEntity.ok(ApiResponse.success("Queue position", waitingRoomService.getPosition(token)));
+    }
+
+    private Long extractUserId(String authHeader) {
+        String token = authHeader.replace("Bearer ", "");
+        return jwtUtil.getUserIdFromToken(token);
+    }
+}
@@ -0,0 +1,28 @@
+package com.skmstore.dto.request;
+
+import com.skmstore.model.ExportType;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public class ExportJobRequest {
+
+    @NotNull(message = "Export type is required")
+    private ExportType type;
+
+    // Order exports only; both optional and inclusive
+    private LocalDate from;
+    private LocalDate to;
+
+    public ExportJobRequest() {
+    }
+
+    public ExportType getType() { return type; }
+    public void setType(ExportType type) { this.type = type; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,29 @@
+package com.skmstore.dto.request;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * Payment for an order placed without one (an allocated pre-order).
+ */
+public class OrderPaymentRequest {
+
+    @Size(max = 100, message = "Invalid payment id")
+    private String razorpayPaymentId;
+
+    @Size(max = 100, message = "Invalid payment order id")
+    private String razorpayOrderId;
+
+    private String razorpaySignature;
+
+    public OrderPaymentRequest() {
+    }
+
+    public String getRazorpayPaymentId() { return razorpayPaymentId; }
+    public void setRazorpayPaymentId(String razorpayPaymentId) { this.razorpayPaymentId = razorpayPaymentId; }
+
+    public String getRazorpayOrderId() { return razorpayOrderId; }
+    public void setRazorpayOrderId(String razorpayOrderId) { this.razorpayOrderId = razorpayOrderId; }
+
+    public String getRazorpaySignature() { return razorpaySignature; }
+    public void setRazorpaySignature(String razorpaySignature) { this.razorpaySignature = razorpaySignature; }
+}
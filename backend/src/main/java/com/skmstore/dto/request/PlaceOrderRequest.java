@@ -17,6 +17,9 @@ public class PlaceOrderRequest {
     private String razorpayOrderId;
     private String razorpaySignature;
 
+    // Stock hold taken when checkout started; optional
+    private String holdId;
+
     public PlaceOrderRequest() {
     }
 
@@ -35,6 +38,9 @@ public class PlaceOrderRequest {
     public String getRazorpaySignature() { return razorpaySignature; }
     public void setRazorpaySignature(String razorpaySignature) { this.razorpaySignature = razorpaySignature; }
 
+    public String getHoldId() { return holdId; }
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+
     public static class OrderItemRequest {
         @NotNull(message = "Product ID is required")
         private Long productId;
@@ -0,0 +1,26 @@
+package com.skmstore.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class PreOrderRequest {
+
+    @NotNull(message = "Address ID is required")
+    private Long addressId;
+
+    @NotEmpty(message = "Items are required")
+    @Valid
+    private List<PlaceOrderRequest.OrderItemRequest> items;
+
+    public PreOrderRequest() {
+    }
+
+    public Long getAddressId() { return addressId; }
+    public void setAddressId(Long addressId) { this.addressId = addressId; }
+
+    public List<PlaceOrderRequest.OrderItemRequest> getItems() { return items; }
+    public void setItems(List<PlaceOrderRequest.OrderItemRequest> items) { this.items = items; }
+}
@@ -22,16 +22,20 @@ public class ProductRequest {
     @DecimalMin(value = "0.01", message = "Sale price must be greater than 0")
     private BigDecimal salePrice;
 
-    private byte[] image;
-
     @NotNull(message = "Stock is required")
     @DecimalMin(value = "0.00")
     private BigDecimal stockKg;
 
+    // The stock the admin was shown when editing; the edit is applied as the change from it
+    @DecimalMin(value = "0.00")
+    private BigDecimal previousStockKg;
+
     @DecimalMin(value = "1.00")
     private BigDecimal minOrderKg = new BigDecimal("3.00");
 
-    private Map<String, String> attributes;
+    // Packed into one column of Product.ATTRIBUTES_MAX_LENGTH characters
+    @Size(max = 20, message = "At most 20 attributes")
+    private Map<@NotBlank @Size(max = 50) String, @Size(max = 150) String> attributes;
 
     public ProductRequest() {
     }
@@ -68,14 +72,6 @@ public class ProductRequest {
         this.salePrice = salePrice;
     }
 
-    public byte[] getImage() {
-        return image;
-    }
-
-    public void setImage(byte[] image) {
-        this.image = image;
-    }
-
     public BigDecimal getStockKg() {
         return stockKg;
     }
@@ -84,6 +80,14 @@ public class ProductRequest {
         this.stockKg = stockKg;
     }
 
+    public BigDecimal getPreviousStockKg() {
+        return previousStockKg;
+    }
+
+    public void setPreviousStockKg(BigDecimal previousStockKg) {
+        this.previousStockKg = previousStockKg;
+    }
+
     public BigDecimal getMinOrderKg() {
         return minOrderKg;
     }
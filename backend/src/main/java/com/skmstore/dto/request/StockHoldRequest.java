@@ -0,0 +1,19 @@
+package com.skmstore.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class StockHoldRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Valid
+    private List<PlaceOrderRequest.OrderItemRequest> items;
+
+    public StockHoldRequest() {
+    }
+
+    public List<PlaceOrderRequest.OrderItemRequest> getItems() { return items; }
+    public void setItems(List<PlaceOrderRequest.OrderItemRequest> items) { this.items = items; }
+}
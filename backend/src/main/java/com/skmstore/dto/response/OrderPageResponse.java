@@ -0,0 +1,23 @@
+package com.skmstore.dto.response;
+
+import java.util.List;
+
+public class OrderPageResponse {
+
+    private List<OrderResponse> orders;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+
+    public OrderPageResponse() {
+    }
+
+    public OrderPageResponse(List<OrderResponse> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderResponse> getOrders() { return orders; }
+    public void setOrders(List<OrderResponse> orders) { this.orders = orders; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
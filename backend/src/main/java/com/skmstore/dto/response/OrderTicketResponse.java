@@ -0,0 +1,32 @@
+package com.skmstore.dto.response;
+
+/**
+ * Receipt for an order accepted in intake mode. {@code status} is QUEUED until a worker has
+ * placed the order (PLACED, with {@code orderId}) or rejected it (FAILED, with {@code message}).
+ */
+public class OrderTicketResponse {
+
+    private String ticketId;
+    private String status;
+    private Long orderId;
+    private String message;
+
+    public OrderTicketResponse() {
+    }
+
+    public OrderTicketResponse(String ticketId, String status, Long orderId, String message) {
+        this.ticketId = ticketId;
+        this.status = status;
+        this.orderId = orderId;
+        this.message = message;
+    }
+
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,29 @@
+package com.skmstore.dto.response;
+
+public class PreOrderAllocationResponse {
+
+    private int allocated;
+    private int unfulfilled;
+    // Left queued because live orders kept winning their stock; run the allocation again
+    private int stillQueued;
+    private long durationMs;
+
+    public PreOrderAllocationResponse() {
+    }
+
+    public PreOrderAllocationResponse(int allocated, int unfulfilled, int stillQueued, long durationMs) {
+        this.allocated = allocated;
+        this.unfulfilled = unfulfilled;
+        this.stillQueued = stillQueued;
+        this.durationMs = durationMs;
+    }
+
+    public int getAllocated() { return allocated; }
+    public void setAllocated(int allocated) { this.allocated = allocated; }
+    public int getUnfulfilled() { return unfulfilled; }
+    public void setUnfulfilled(int unfulfilled) { this.unfulfilled = unfulfilled; }
+    public int getStillQueued() { return stillQueued; }
+    public void setStillQueued(int stillQueued) { this.stillQueued = stillQueued; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
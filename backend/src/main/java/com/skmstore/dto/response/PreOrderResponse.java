@@ -0,0 +1,56 @@
+package com.skmstore.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PreOrderResponse {
+
+    private Long id;
+    private String status;
+    private Integer priority;
+    private Long orderId;
+    private String note;
+    private LocalDateTime createdAt;
+    private List<ItemInfo> items;
+
+    public PreOrderResponse() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public List<ItemInfo> getItems() { return items; }
+    public void setItems(List<ItemInfo> items) { this.items = items; }
+
+    public static class ItemInfo {
+        private Long productId;
+        private String productName;
+        private BigDecimal quantityKg;
+
+        public ItemInfo() {
+        }
+
+        public ItemInfo(Long productId, String productName, BigDecimal quantityKg) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantityKg = quantityKg;
+        }
+
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+        public String getProductName() { return productName; }
+        public void setProductName(String productName) { this.productName = productName; }
+        public BigDecimal getQuantityKg() { return quantityKg; }
+        public void setQuantityKg(BigDecimal quantityKg) { this.quantityKg = quantityKg; }
+    }
+}
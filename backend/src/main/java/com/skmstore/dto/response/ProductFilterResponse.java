@@ -0,0 +1,51 @@
+package com.skmstore.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered products plus the number of products each facet value would give, counted against
+ * the other selected facets.
+ */
+public class ProductFilterResponse {
+
+    private List<ProductResponse> products;
+    private Map<String, Map<String, Integer>> attributeFacets;
+    private Map<String, Integer> priceBandFacets;
+    private int inStockCount;
+
+    public ProductFilterResponse() {
+    }
+
+    public List<ProductResponse> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductResponse> products) {
+        this.products = products;
+    }
+
+    public Map<String, Map<String, Integer>> getAttributeFacets() {
+        return attributeFacets;
+    }
+
+    public void setAttributeFacets(Map<String, Map<String, Integer>> attributeFacets) {
+        this.attributeFacets = attributeFacets;
+    }
+
+    public Map<String, Integer> getPriceBandFacets() {
+        return priceBandFacets;
+    }
+
+    public void setPriceBandFacets(Map<String, Integer> priceBandFacets) {
+        this.priceBandFacets = priceBandFacets;
+    }
+
+    public int getInStockCount() {
+        return inStockCount;
+    }
+
+    public void setInStockCount(int inStockCount) {
+        this.inStockCount = inStockCount;
+    }
+}
@@ -1,6 +1,9 @@
 package com.skmstore.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 public class ProductResponse {
@@ -12,7 +15,8 @@ public class ProductResponse {
     private BigDecimal salePrice;
     private BigDecimal effectivePrice;
     private boolean onSale;
-    private byte[] image;
+    private String imageUrl;
+    private Map<String, String> imageSizes;
     private BigDecimal stockKg;
     private BigDecimal minOrderKg;
     private boolean inStock;
@@ -20,6 +24,10 @@ public class ProductResponse {
     private boolean special;
     private Map<String, String> attributes;
 
+    // Only used for Last-Modified headers; not part of the JSON body
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     public ProductResponse() {
     }
 
@@ -79,12 +87,20 @@ public class ProductResponse {
         this.onSale = onSale;
     }
 
-    public byte[] getImage() {
-        return image;
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Map<String, String> getImageSizes() {
+        return imageSizes;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageSizes(Map<String, String> imageSizes) {
+        this.imageSizes = imageSizes;
     }
 
     public BigDecimal getStockKg() {
@@ -134,4 +150,12 @@ public class ProductResponse {
     public void setAttributes(Map<String, String> attributes) {
         this.attributes = attributes;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,58 @@
+package com.skmstore.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact search-box suggestion; the full product is fetched when the user picks one.
+ */
+public class ProductSuggestionResponse {
+
+    private Long id;
+    private String name;
+    private String imageUrl;
+    private BigDecimal effectivePrice;
+
+    public ProductSuggestionResponse() {
+    }
+
+    public ProductSuggestionResponse(ProductResponse product) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.imageUrl = product.getImageSizes() != null
+                ? product.getImageSizes().get("thumb")
+                : product.getImageUrl();
+        this.effectivePrice = product.getEffectivePrice();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public BigDecimal getEffectivePrice() {
+        return effectivePrice;
+    }
+
+    public void setEffectivePrice(BigDecimal effectivePrice) {
+        this.effectivePrice = effectivePrice;
+    }
+}
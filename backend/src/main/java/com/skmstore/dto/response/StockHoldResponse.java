@@ -0,0 +1,32 @@
+package com.skmstore.dto.response;
+
+import com.skmstore.model.Quantity;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A checkout stock hold; pass {@code holdId} when placing the order before {@code expiresAt}.
+ */
+public class StockHoldResponse {
+
+    private String holdId;
+    private LocalDateTime expiresAt;
+    private Map<Long, Quantity> quantities;
+
+    public StockHoldResponse() {
+    }
+
+    public StockHoldResponse(String holdId, LocalDateTime expiresAt, Map<Long, Quantity> quantities) {
+        this.holdId = holdId;
+        this.expiresAt = expiresAt;
+        this.quantities = quantities;
+    }
+
+    public String getHoldId() { return holdId; }
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public Map<Long, Quantity> getQuantities() { return quantities; }
+    public void setQuantities(Map<Long, Quantity> quantities) { this.quantities = quantities; }
+}
@@ -0,0 +1,42 @@
+package com.skmstore.dto.response;
+
+/**
+ * Place in the season-opening queue. {@code active} is false when there is no queue, in which
+ * case the customer may go straight to checkout; otherwise send {@code token} as
+ * {@code X-Queue-Token} with stock holds and orders once {@code admitted} is true.
+ */
+public class WaitingRoomResponse {
+
+    private boolean active;
+    private String token;
+    private long position;
+    private boolean admitted;
+    private long estimatedWaitSeconds;
+
+    public WaitingRoomResponse() {
+    }
+
+    public WaitingRoomResponse(boolean active, String token, long position, boolean admitted,
+                               long estimatedWaitSeconds) {
+        this.active = active;
+        this.token = token;
+        this.position = position;
+        this.admitted = admitted;
+        this.estimatedWaitSeconds = estimatedWaitSeconds;
+    }
+
+    public static WaitingRoomResponse open() {
+        return new WaitingRoomResponse(false, null, 0, true, 0);
+    }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    public boolean isAdmitted() { return admitted; }
+    public void setAdmitted(boolean admitted) { this.admitted = admitted; }
+    public long getEstimatedWaitSeconds() { return estimatedWaitSeconds; }
+    public void setEstimatedWaitSeconds(long estimatedWaitSeconds) { this.estimatedWaitSeconds = estimatedWaitSeconds; }
+}
@@ -0,0 +1,77 @@
+package com.skmstore.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Makes {@code orders.payment_id} unique. Retried checkouts used to store one payment on several
+ * orders, and {@code ddl-auto} cannot build the unique index over those rows (it only logs the
+ * failure). The oldest order keeps the payment id; it is cleared from the later duplicates,
+ * which are logged for review. Then the index is created, and startup fails if it is still
+ * missing, since idempotent order placement relies on it. Does nothing once the index exists.
+ */
+@Component
+@Order(0)
+public class OrderPaymentIdMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPaymentIdMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderPaymentIdMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (hasUniquePaymentIdIndex()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> duplicated = jdbcTemplate.queryForList("SELECT payment_id FROM orders "
+                    + "WHERE payment_id IS NOT NULL GROUP BY payment_id HAVING COUNT(*) > 1", String.class);
+            for (String paymentId : duplicated) {
+                List<Long> orderIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM orders WHERE payment_id = ? ORDER BY id", Long.class, paymentId);
+                jdbcTemplate.update("UPDATE orders SET payment_id = NULL WHERE payment_id = ? AND id <> ?",
+                        paymentId, orderIds.get(0));
+                log.warn("Payment {} was stored on orders {}; kept on order {}, the others are likely duplicates",
+                        paymentId, orderIds, orderIds.get(0));
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX idx_order_payment_id ON orders (payment_id)");
+        });
+        if (!hasUniquePaymentIdIndex()) {
+            throw new IllegalStateException("orders.payment_id has no unique index; "
+                    + "a payment could back more than one order");
+        }
+        log.info("Unique index on orders.payment_id created");
+    }
+
+    private boolean hasUniquePaymentIdIndex() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metadata = connection.getMetaData();
+            String table = metadata.storesUpperCaseIdentifiers() ? "ORDERS" : "orders";
+            try (ResultSet indexes = metadata.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    table, true, false)) {
+                while (indexes.next()) {
+                    if ("payment_id".equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,57 @@
+package com.skmstore.migration;
+
+import com.skmstore.model.ProductAttributesConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Packs rows from the legacy {@code product_attributes} table into the JSON
+ * {@code products.attributes} column, then drops the table. Does nothing once the table is gone.
+ */
+@Component
+@Order(0)
+public class ProductAttributeMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductAttributeMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductAttributeMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        Map<Long, Map<String, String>> byProduct = new TreeMap<>();
+        try {
+            jdbcTemplate.query("SELECT product_id, attr_key, attr_value FROM product_attributes ORDER BY id", rs -> {
+                byProduct.computeIfAbsent(rs.getLong(1), id -> new LinkedHashMap<>())
+                        .put(rs.getString(2), rs.getString(3));
+            });
+        } catch (DataAccessException e) {
+            // Table already migrated (or a fresh schema) — nothing to do
+            return;
+        }
+
+        ProductAttributesConverter converter = new ProductAttributesConverter();
+        transactionTemplate.executeWithoutResult(status -> {
+            byProduct.forEach((productId, attributes) -> jdbcTemplate.update(
+                    "UPDATE products SET attributes = ? WHERE id = ? AND attributes IS NULL",
+                    converter.convertToDatabaseColumn(attributes), productId));
+            jdbcTemplate.execute("DROP TABLE product_attributes");
+        });
+        log.info("Attributes of {} products packed into products.attributes", byProduct.size());
+    }
+}
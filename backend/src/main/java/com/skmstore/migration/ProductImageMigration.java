@@ -0,0 +1,78 @@
+package com.skmstore.migration;
+
+import com.skmstore.service.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Moves images stored inline in the legacy {@code products.image} LOB column into the
+ * content-addressed {@link ImageStore}, one product per transaction so only a single image
+ * is held in memory at a time. Safe to run on every startup.
+ */
+@Component
+@Order(0)
+public class ProductImageMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStore imageStore;
+
+    public ProductImageMigration(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ImageStore imageStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.imageStore = imageStore;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<Long> ids;
+        try {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM products WHERE image IS NOT NULL AND image_hash IS NULL", Long.class);
+        } catch (DataAccessException e) {
+            // Fresh schema without the legacy column — nothing to migrate
+            return;
+        }
+
+        int moved = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Stream the blob straight into the store while the result set is still open
+                    String hash = jdbcTemplate.query("SELECT image FROM products WHERE id = ?", rs -> {
+                        rs.next();
+                        try (InputStream in = rs.getBlob(1).getBinaryStream()) {
+                            return imageStore.store(in);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, id);
+                    jdbcTemplate.update("UPDATE products SET image_hash = ?, image = NULL WHERE id = ?", hash, id);
+                });
+                moved++;
+            } catch (RuntimeException e) {
+                // The legacy column took any bytes of any size; the store does not. Such a product
+                // keeps its old image (not served) until an admin uploads a new one
+                log.warn("Product {} image not migrated: {}", id, e.getMessage());
+            }
+        }
+        if (moved > 0) {
+            log.info("{} product images moved to the image store", moved);
+        }
+    }
+}
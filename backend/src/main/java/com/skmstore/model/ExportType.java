@@ -0,0 +1,6 @@
+package com.skmstore.model;
+
+public enum ExportType {
+    ORDERS,
+    USERS
+}
@@ -0,0 +1,62 @@
+package com.skmstore.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in rupees held as whole paise. Pricing and order totals are plain {@code long}
+ * arithmetic, so the order path allocates no {@link BigDecimal}s; stored as NUMERIC(10,2)
+ * through {@link MoneyConverter}.
+ */
+public record Money(long paise) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofRupees(BigDecimal rupees) {
+        if (rupees == null) {
+            return null;
+        }
+        if (rupees.scale() <= 2 && rupees.precision() - rupees.scale() <= 13) {
+            // Whole paise at most 15 digits long: exact through a double, without allocating
+            return new Money(Math.round(rupees.doubleValue() * 100));
+        }
+        return new Money(rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    public static Money ofRupees(String rupees) {
+        return ofRupees(new BigDecimal(rupees));
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(paise, other.paise));
+    }
+
+    /**
+     * This price per kilogram times a quantity, rounded half up to the paisa.
+     */
+    public Money times(Quantity quantity) {
+        long milliPaise = Math.multiplyExact(paise, quantity.grams());
+        return new Money(Math.floorDiv(milliPaise + 500, 1000));
+    }
+
+    public boolean isLessThan(Money other) {
+        return paise < other.paise;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
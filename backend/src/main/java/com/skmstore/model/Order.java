@@ -2,10 +2,8 @@ package com.skmstore.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,9 +11,11 @@ import java.util.List;
 @Entity
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_user_id", columnList = "user_id"),
-    @Index(name = "idx_order_status", columnList = "status"),
-    @Index(name = "idx_order_date", columnList = "order_date"),
-    @Index(name = "idx_order_payment_status", columnList = "payment_status")
+    // Keyset pages of the admin listing seek on (order_date, id), optionally within one status
+    @Index(name = "idx_order_status_date", columnList = "status, order_date, id"),
+    @Index(name = "idx_order_date_id", columnList = "order_date, id"),
+    @Index(name = "idx_order_payment_status", columnList = "payment_status"),
+    @Index(name = "idx_order_payment_id", columnList = "payment_id", unique = true)
 })
 public class Order {
 
@@ -34,9 +34,8 @@ public class Order {
     private Address address;
 
     @NotNull
-    @DecimalMin(value = "0.01")
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
     @Column(nullable = false, length = 30)
     @Enumerated(EnumType.STRING)
@@ -104,8 +103,8 @@ public class Order {
     public Address getAddress() { return address; }
     public void setAddress(Address address) { this.address = address; }
 
-    public BigDecimal getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public Money getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Money totalAmount) { this.totalAmount = totalAmount; }
 
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
@@ -2,10 +2,8 @@ package com.skmstore.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import java.math.BigDecimal;
 
 @Entity
 @Table(name = "order_items", indexes = {
@@ -29,24 +27,35 @@ public class OrderItem {
     private Product product;
 
     @NotNull
-    @DecimalMin(value = "1.00")
     @Column(name = "quantity_kg", nullable = false, precision = 10, scale = 2)
-    private BigDecimal quantityKg;
+    private Quantity quantityKg;
 
     @NotNull
-    @DecimalMin(value = "0.01")
     @Column(name = "price_per_kg", nullable = false, precision = 10, scale = 2)
-    private BigDecimal pricePerKg;
+    private Money pricePerKg;
+
+    // Computed once per item; the setters below drop it
+    @Transient
+    private Money lineTotal;
 
     @Size(max = 200)
     @Column(name = "product_name", length = 200)
     private String productName;
 
+    // False until the quantity has been subtracted from products.stock_kg (flash-sale mode sells from memory first)
+    @Column(name = "stock_reconciled")
+    private Boolean stockReconciled = true;
+
     public OrderItem() {
     }
 
-    public BigDecimal getLineTotal() {
-        return pricePerKg.multiply(quantityKg);
+    public Money getLineTotal() {
+        Money total = lineTotal;
+        if (total == null) {
+            total = pricePerKg.times(quantityKg);
+            lineTotal = total;
+        }
+        return total;
     }
 
     public Long getId() { return id; }
@@ -58,12 +67,14 @@ public class OrderItem {
     public Product getProduct() { return product; }
     public void setProduct(Product product) { this.product = product; }
 
-    public BigDecimal getQuantityKg() { return quantityKg; }
-    public void setQuantityKg(BigDecimal quantityKg) { this.quantityKg = quantityKg; }
+    public Quantity getQuantityKg() { return quantityKg; }
+    public void setQuantityKg(Quantity quantityKg) { this.quantityKg = quantityKg; this.lineTotal = null; }
 
-    public BigDecimal getPricePerKg() { return pricePerKg; }
-    public void setPricePerKg(BigDecimal pricePerKg) { this.pricePerKg = pricePerKg; }
+    public Money getPricePerKg() { return pricePerKg; }
+    public void setPricePerKg(Money pricePerKg) { this.pricePerKg = pricePerKg; this.lineTotal = null; }
 
     public String getProductName() { return productName; }
     public void setProductName(String productName) { this.productName = productName; }
+    public Boolean getStockReconciled() { return stockReconciled; }
+    public void setStockReconciled(Boolean stockReconciled) { this.stockReconciled = stockReconciled; }
 }
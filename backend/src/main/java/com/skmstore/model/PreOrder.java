@@ -0,0 +1,91 @@
+package com.skmstore.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Off-season booking. It takes no stock while QUEUED; when the season opens the allocation run
+ * turns it into an order (ALLOCATED, with {@code orderId}) or marks it UNFULFILLED.
+ * Higher {@code priority} is served first, then first come, first served.
+ */
+@Entity
+@Table(name = "pre_orders", indexes = {
+    @Index(name = "idx_pre_order_queue", columnList = "status, priority DESC, id"),
+    @Index(name = "idx_pre_order_user_id", columnList = "user_id")
+})
+public class PreOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "address_id", nullable = false)
+    private Long addressId;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private PreOrderStatus status = PreOrderStatus.QUEUED;
+
+    @Column(nullable = false)
+    private Integer priority = 0;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Why an UNFULFILLED pre-order could not be allocated
+    @Column(length = 200)
+    private String note;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @OneToMany(mappedBy = "preOrder", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<PreOrderItem> items = new ArrayList<>();
+
+    public PreOrder() {
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void addItem(PreOrderItem item) {
+        items.add(item);
+        item.setPreOrder(this);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getAddressId() { return addressId; }
+    public void setAddressId(Long addressId) { this.addressId = addressId; }
+    public PreOrderStatus getStatus() { return status; }
+    public void setStatus(PreOrderStatus status) { this.status = status; }
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public List<PreOrderItem> getItems() { return items; }
+    public void setItems(List<PreOrderItem> items) { this.items = items; }
+}
@@ -0,0 +1,49 @@
+package com.skmstore.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "pre_order_items", indexes = {
+    @Index(name = "idx_pre_order_item_pre_order_id", columnList = "pre_order_id")
+})
+public class PreOrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pre_order_id", nullable = false)
+    private PreOrder preOrder;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name", length = 200)
+    private String productName;
+
+    @Column(name = "quantity_kg", nullable = false, precision = 10, scale = 2)
+    private Quantity quantityKg;
+
+    public PreOrderItem() {
+    }
+
+    public PreOrderItem(Long productId, String productName, Quantity quantityKg) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantityKg = quantityKg;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public PreOrder getPreOrder() { return preOrder; }
+    public void setPreOrder(PreOrder preOrder) { this.preOrder = preOrder; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public Quantity getQuantityKg() { return quantityKg; }
+    public void setQuantityKg(Quantity quantityKg) { this.quantityKg = quantityKg; }
+}
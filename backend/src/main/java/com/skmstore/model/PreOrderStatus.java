@@ -0,0 +1,8 @@
+package com.skmstore.model;
+
+public enum PreOrderStatus {
+    QUEUED,
+    ALLOCATED,
+    UNFULFILLED,
+    CANCELLED
+}
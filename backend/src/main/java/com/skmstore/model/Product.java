@@ -1,22 +1,25 @@
 package com.skmstore.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import java.math.BigDecimal;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+// Admin edits write only the columns they change, so two edits to different fields do not undo each other
 @Entity
+@DynamicUpdate
 @Table(name = "products", indexes = {
         @Index(name = "idx_product_active", columnList = "active"),
         @Index(name = "idx_product_name", columnList = "name")
 })
 public class Product {
 
+    public static final int ATTRIBUTES_MAX_LENGTH = 4000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,28 +32,27 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Prices and weights are validated as BigDecimal on ProductRequest before they get here
     @NotNull(message = "Original price is required")
-    @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     @Column(name = "original_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal originalPrice;
+    private Money originalPrice;
 
-    @DecimalMin(value = "0.01", message = "Sale price must be greater than 0")
     @Column(name = "sale_price", precision = 10, scale = 2)
-    private BigDecimal salePrice;
+    private Money salePrice;
 
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
+    @Size(max = 64)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
+    // Never written by an entity save, which would put back the value read at load time over
+    // orders committed since; changes go through the guarded or delta UPDATEs instead
     @NotNull
-    @DecimalMin(value = "0.00")
-    @Column(name = "stock_kg", nullable = false, precision = 10, scale = 2)
-    private BigDecimal stockKg = BigDecimal.ZERO;
+    @Column(name = "stock_kg", nullable = false, precision = 10, scale = 2, updatable = false)
+    private Quantity stockKg = Quantity.ZERO;
 
     @NotNull
-    @DecimalMin(value = "1.00")
     @Column(name = "min_order_kg", nullable = false, precision = 10, scale = 2)
-    private BigDecimal minOrderKg = new BigDecimal("3.00");
+    private Quantity minOrderKg = new Quantity(3000);
 
     @Column(nullable = false)
     private Boolean active = true;
@@ -64,8 +66,10 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
-    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    private List<ProductAttribute> attributes = new ArrayList<>();
+    // Packed as JSON in one column so a product is always a single-row read and write
+    @Convert(converter = ProductAttributesConverter.class)
+    @Column(name = "attributes", length = ATTRIBUTES_MAX_LENGTH)
+    private Map<String, String> attributes = new LinkedHashMap<>();
 
     public Product() {
     }
@@ -86,19 +90,16 @@ public class Product {
      * Returns the effective selling price (salePrice if set and less than original,
      * otherwise originalPrice).
      */
-    public BigDecimal getEffectivePrice() {
-        if (salePrice != null && salePrice.compareTo(originalPrice) < 0) {
-            return salePrice;
-        }
-        return originalPrice;
+    public Money getEffectivePrice() {
+        return isOnSale() ? salePrice : originalPrice;
     }
 
     public boolean isOnSale() {
-        return salePrice != null && salePrice.compareTo(originalPrice) < 0;
+        return salePrice != null && salePrice.isLessThan(originalPrice);
     }
 
     public boolean isInStock() {
-        return stockKg.compareTo(minOrderKg) >= 0;
+        return !stockKg.isLessThan(minOrderKg);
     }
 
     public Long getId() {
@@ -125,43 +126,43 @@ public class Product {
         this.description = description;
     }
 
-    public BigDecimal getOriginalPrice() {
+    public Money getOriginalPrice() {
         return originalPrice;
     }
 
-    public void setOriginalPrice(BigDecimal originalPrice) {
+    public void setOriginalPrice(Money originalPrice) {
         this.originalPrice = originalPrice;
     }
 
-    public BigDecimal getSalePrice() {
+    public Money getSalePrice() {
         return salePrice;
     }
 
-    public void setSalePrice(BigDecimal salePrice) {
+    public void setSalePrice(Money salePrice) {
         this.salePrice = salePrice;
     }
 
-    public byte[] getImage() {
-        return image;
+    public String getImageHash() {
+        return imageHash;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
     }
 
-    public BigDecimal getStockKg() {
+    public Quantity getStockKg() {
         return stockKg;
     }
 
-    public void setStockKg(BigDecimal stockKg) {
+    public void setStockKg(Quantity stockKg) {
         this.stockKg = stockKg;
     }
 
-    public BigDecimal getMinOrderKg() {
+    public Quantity getMinOrderKg() {
         return minOrderKg;
     }
 
-    public void setMinOrderKg(BigDecimal minOrderKg) {
+    public void setMinOrderKg(Quantity minOrderKg) {
         this.minOrderKg = minOrderKg;
     }
 
@@ -197,11 +198,11 @@ public class Product {
         this.updatedAt = updatedAt;
     }
 
-    public List<ProductAttribute> getAttributes() {
+    public Map<String, String> getAttributes() {
         return attributes;
     }
 
-    public void setAttributes(List<ProductAttribute> attributes) {
+    public void setAttributes(Map<String, String> attributes) {
         this.attributes = attributes;
     }
 }
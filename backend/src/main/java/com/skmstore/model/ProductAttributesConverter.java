@@ -0,0 +1,47 @@
+package com.skmstore.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores product attributes as one JSON object in {@code products.attributes}. Keys repeat
+ * across every product (origin, grade, ...), so they are interned on read.
+ */
+@Converter
+public class ProductAttributesConverter implements AttributeConverter<Map<String, String>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, String>> MAP_TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(attributes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize product attributes", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String json) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (json == null || json.isBlank()) {
+            return attributes;
+        }
+        try {
+            MAPPER.readValue(json, MAP_TYPE).forEach((key, value) -> attributes.put(key.intern(), value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed product attributes: " + json, e);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.skmstore.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.sql.Blob;
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of an uploaded product image, keyed by the SHA-256 of its bytes.
+ * The local disk store is only a cache of this table (Render disks are wiped on deploy).
+ * Content is a {@link Blob} so uploads are streamed into the database rather than buffered.
+ */
+@Entity
+@Table(name = "product_images")
+public class ProductImage implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Lob
+    @Column(nullable = false)
+    private Blob content;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // The id is assigned (the hash), so tell Spring Data to persist rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    public ProductImage() {
+    }
+
+    public ProductImage(String hash, String contentType, long sizeBytes, Blob content) {
+        this.hash = hash;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.content = content;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public Blob getContent() { return content; }
+    public void setContent(Blob content) { this.content = content; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,63 @@
+package com.skmstore.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A weight held as whole grams, always a multiple of 10 g so it fits the NUMERIC(10,2) kilogram
+ * columns it is stored in through {@link QuantityConverter}.
+ */
+public record Quantity(long grams) implements Comparable<Quantity> {
+
+    public static final Quantity ZERO = new Quantity(0);
+
+    /**
+     * The weight rounded half up to 10 g, the columns' two decimals.
+     */
+    public static Quantity ofKilograms(BigDecimal kilograms) {
+        if (kilograms == null) {
+            return null;
+        }
+        if (kilograms.scale() <= 2 && kilograms.precision() - kilograms.scale() <= 13) {
+            // Whole 10 g units at most 15 digits long: exact through a double, without allocating
+            return new Quantity(Math.round(kilograms.doubleValue() * 100) * 10);
+        }
+        return new Quantity(kilograms.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() * 10);
+    }
+
+    public static Quantity ofKilograms(String kilograms) {
+        return ofKilograms(new BigDecimal(kilograms));
+    }
+
+    public Quantity plus(Quantity other) {
+        return new Quantity(Math.addExact(grams, other.grams));
+    }
+
+    public Quantity minus(Quantity other) {
+        return new Quantity(Math.subtractExact(grams, other.grams));
+    }
+
+    public boolean isLessThan(Quantity other) {
+        return grams < other.grams;
+    }
+
+    /**
+     * Kilograms at the columns' two decimals.
+     */
+    @JsonValue
+    public BigDecimal toKilograms() {
+        return BigDecimal.valueOf(grams / 10, 2);
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(grams, other.grams);
+    }
+
+    @Override
+    public String toString() {
+        return toKilograms().toPlainString();
+    }
+}
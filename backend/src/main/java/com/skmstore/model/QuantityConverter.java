@@ -0,0 +1,23 @@
+package com.skmstore.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Quantity} to the existing NUMERIC(10,2) kilogram columns.
+ */
+@Converter(autoApply = true)
+public class QuantityConverter implements AttributeConverter<Quantity, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Quantity quantity) {
+        return quantity != null ? quantity.toKilograms() : null;
+    }
+
+    @Override
+    public Quantity convertToEntityAttribute(BigDecimal kilograms) {
+        return Quantity.ofKilograms(kilograms);
+    }
+}
@@ -0,0 +1,67 @@
+package com.skmstore.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One product line of a checkout stock hold. The stock is already taken while the row exists;
+ * placing the order consumes the rows, expiry deletes them and gives the stock back.
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+    @Index(name = "idx_stock_hold_hold_id", columnList = "hold_id"),
+    @Index(name = "idx_stock_hold_user_id", columnList = "user_id")
+})
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hold_id", nullable = false, length = 36)
+    private String holdId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity_kg", nullable = false, precision = 10, scale = 2)
+    private Quantity quantityKg;
+
+    // True when the stock came from the in-memory flash-sale counters rather than products.stock_kg
+    @Column(name = "flash_sale", nullable = false)
+    private Boolean flashSale = false;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StockHold() {
+    }
+
+    public StockHold(String holdId, Long userId, Long productId, Quantity quantityKg,
+                     boolean flashSale, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.userId = userId;
+        this.productId = productId;
+        this.quantityKg = quantityKg;
+        this.flashSale = flashSale;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getHoldId() { return holdId; }
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Quantity getQuantityKg() { return quantityKg; }
+    public void setQuantityKg(Quantity quantityKg) { this.quantityKg = quantityKg; }
+    public Boolean getFlashSale() { return flashSale; }
+    public void setFlashSale(Boolean flashSale) { this.flashSale = flashSale; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
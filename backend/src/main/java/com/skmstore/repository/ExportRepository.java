@@ -0,0 +1,156 @@
+package com.skmstore.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads orders and users for CSV exports and the streamed user list through forward-only cursors,
+ * one record at a time, so a caller holds a single record in memory however many there are. The database sends rows in
+ * batches of {@code app.export.fetch-size}; PostgreSQL only does so inside a transaction.
+ */
+@Repository
+public class ExportRepository {
+
+    public record ExportedItem(String productName, BigDecimal quantityKg) {}
+
+    public record ExportedOrder(long id, LocalDateTime orderDate, String customerName, String customerPhone,
+                                String fullName, String addressLine, String city, String state, String pincode,
+                                BigDecimal totalAmount, String status, String courierName, String trackingId,
+                                List<ExportedItem> items) {}
+
+    public record ExportedUser(long id, String name, String phone, String email, String role, boolean active,
+                               LocalDateTime createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = Math.max(fetchSize, 1);
+    }
+
+    /**
+     * Passes each order placed in {@code from <= order_date < to} (either bound optional) to
+     * {@code consumer}, newest first, with its items.
+     */
+    public void forEachOrder(LocalDateTime from, LocalDateTime to, Consumer<ExportedOrder> consumer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id, o.order_date, o.total_amount, o.status, o.courier_name, o.tracking_id, "
+                        + "u.name AS customer_name, u.phone AS customer_phone, "
+                        + "a.full_name, a.address_line, a.city, a.state, a.pincode, "
+                        + "i.product_name, i.quantity_kg "
+                        + "FROM orders o "
+                        + "JOIN users u ON u.id = o.user_id "
+                        + "JOIN addresses a ON a.id = o.address_id "
+                        + "LEFT JOIN order_items i ON i.order_id = o.id WHERE 1 = 1");
+        List<Timestamp> args = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        // Each order's item rows arrive together, so an order is complete when the id changes
+        sql.append(" ORDER BY o.order_date DESC, o.id DESC, i.id");
+
+        OrderAssembler assembler = new OrderAssembler(consumer);
+        stream(sql.toString(), args, assembler);
+        assembler.flush();
+    }
+
+    public long countOrders(LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM orders WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Passes every user to {@code consumer}, oldest account first.
+     */
+    public void forEachUser(Consumer<ExportedUser> consumer) {
+        stream("SELECT id, name, phone, email, role, active, created_at FROM users ORDER BY id", List.of(), rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            consumer.accept(new ExportedUser(rs.getLong("id"), rs.getString("name"), rs.getString("phone"),
+                    rs.getString("email"), rs.getString("role"), rs.getBoolean("active"),
+                    createdAt != null ? createdAt.toLocalDateTime() : null));
+        });
+    }
+
+    public long countUsers() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private void stream(String sql, List<Timestamp> args, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setTimestamp(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    private static final class OrderAssembler implements RowCallbackHandler {
+
+        private final Consumer<ExportedOrder> consumer;
+        private ExportedOrder current;
+
+        OrderAssembler(Consumer<ExportedOrder> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id() != id) {
+                flush();
+                Timestamp orderDate = rs.getTimestamp("order_date");
+                current = new ExportedOrder(id, orderDate != null ? orderDate.toLocalDateTime() : null,
+                        rs.getString("customer_name"), rs.getString("customer_phone"),
+                        rs.getString("full_name"), rs.getString("address_line"), rs.getString("city"),
+                        rs.getString("state"), rs.getString("pincode"), rs.getBigDecimal("total_amount"),
+                        rs.getString("status"), rs.getString("courier_name"), rs.getString("tracking_id"),
+                        new ArrayList<>(4));
+            }
+            String productName = rs.getString("product_name");
+            BigDecimal quantityKg = rs.getBigDecimal("quantity_kg");
+            if (quantityKg != null) {
+                current.items().add(new ExportedItem(productName, quantityKg));
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
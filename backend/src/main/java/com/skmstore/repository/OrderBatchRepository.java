@@ -0,0 +1,140 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.Money;
+import com.skmstore.model.OrderItem;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.model.PaymentStatus;
+import com.skmstore.model.Quantity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order writes that JPA would issue one row at a time (IDENTITY keys disable Hibernate batching).
+ * Each method sends its statements as a single JDBC batch inside the caller's transaction.
+ */
+@Repository
+public class OrderBatchRepository {
+
+    public record NewOrder(Long userId, Long addressId, Money totalAmount,
+                           OrderStatus status, PaymentStatus paymentStatus) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes stock for every product with a guarded decrement, in the map's iteration order.
+     * Returns the ids whose guard failed (not enough left); their rows are unchanged, but the
+     * others are not, so the caller must roll back when the list is not empty.
+     */
+    public List<Long> decrementStock(Map<Long, Quantity> quantities, LocalDateTime now) {
+        List<Map.Entry<Long, Quantity>> lines = new ArrayList<>(quantities.entrySet());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock_kg = stock_kg - ?, updated_at = ? WHERE id = ? AND stock_kg >= ?",
+                lines, lines.size(), (ps, line) -> {
+                    BigDecimal kg = line.getValue().toKilograms();
+                    ps.setBigDecimal(1, kg);
+                    ps.setTimestamp(2, updatedAt);
+                    ps.setLong(3, line.getKey());
+                    ps.setBigDecimal(4, kg);
+                })[0];
+
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                insufficient.add(lines.get(i).getKey());
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * Gives stock back (expired or released holds), in the map's iteration order.
+     */
+    public void incrementStock(Map<Long, Quantity> quantities, LocalDateTime now) {
+        List<Map.Entry<Long, Quantity>> lines = new ArrayList<>(quantities.entrySet());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate("UPDATE products SET stock_kg = stock_kg + ?, updated_at = ? WHERE id = ?",
+                lines, lines.size(), (ps, line) -> {
+                    ps.setBigDecimal(1, line.getValue().toKilograms());
+                    ps.setTimestamp(2, updatedAt);
+                    ps.setLong(3, line.getKey());
+                });
+    }
+
+    /**
+     * Inserts the orders and returns their generated ids, in the same order.
+     */
+    public List<Long> insertOrders(List<NewOrder> orders, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO orders (user_id, address_id, total_amount, status, payment_status, "
+                                + "order_date, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewOrder order = orders.get(i);
+                        ps.setLong(1, order.userId());
+                        ps.setLong(2, order.addressId());
+                        ps.setBigDecimal(3, order.totalAmount().toBigDecimal());
+                        ps.setString(4, order.status().name());
+                        ps.setString(5, order.paymentStatus().name());
+                        ps.setTimestamp(6, createdAt);
+                        ps.setTimestamp(7, createdAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                },
+                keys);
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    public void insertItems(Long orderId, List<OrderItem> items) {
+        insertItems(Map.of(orderId, items));
+    }
+
+    /**
+     * Inserts the items of several orders, keyed by order id, as one batch.
+     */
+    public void insertItems(Map<Long, List<OrderItem>> itemsByOrderId) {
+        List<Map.Entry<Long, OrderItem>> rows = new ArrayList<>();
+        itemsByOrderId.forEach((orderId, items) -> items.forEach(item -> rows.add(Map.entry(orderId, item))));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_items (order_id, product_id, product_name, quantity_kg, price_per_kg, "
+                        + "stock_reconciled) VALUES (?, ?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    OrderItem item = row.getValue();
+                    ps.setLong(1, row.getKey());
+                    ps.setLong(2, item.getProduct().getId());
+                    ps.setString(3, item.getProductName());
+                    ps.setBigDecimal(4, item.getQuantityKg().toKilograms());
+                    ps.setBigDecimal(5, item.getPricePerKg().toBigDecimal());
+                    ps.setBoolean(6, !Boolean.FALSE.equals(item.getStockReconciled()));
+                });
+    }
+}
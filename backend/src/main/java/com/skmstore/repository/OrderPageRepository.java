@@ -0,0 +1,66 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pages over orders, newest first. A page seeks past the last {@code (order_date, id)}
+ * seen on the previous one instead of counting an offset, so every page costs one short index
+ * range scan however many orders there are.
+ */
+@Repository
+public class OrderPageRepository {
+
+    /**
+     * Position of an order in the listing. {@code orderDate} is read back from the database, so
+     * it compares equal to the stored value whatever precision the column keeps.
+     */
+    public record OrderKey(LocalDateTime orderDate, long id) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderPageRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} order keys after {@code after} (or from the newest when null), filtered
+     * by status and by {@code from <= order_date < to} where those are given.
+     */
+    public List<OrderKey> findKeys(OrderStatus status, LocalDateTime from, LocalDateTime to,
+                                   OrderKey after, int limit) {
+        // Only the predicates in use are added, so the planner always sees plain index conditions
+        StringBuilder sql = new StringBuilder("SELECT id, order_date FROM orders WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (after != null) {
+            // A row-value comparison is a range on the (order_date, id) index; the equivalent
+            // OR of two conditions is not, and is filtered row by row from the newest order
+            sql.append(" AND (order_date, id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.orderDate()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY order_date DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new OrderKey(rs.getTimestamp("order_date").toLocalDateTime(), rs.getLong("id")),
+                args.toArray());
+    }
+}
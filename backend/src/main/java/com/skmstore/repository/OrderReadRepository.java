@@ -0,0 +1,183 @@
+package com.skmstore.repository;
+
+import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.model.Money;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.model.Quantity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Order reads for display. One query joins each order with its customer, address and items, and
+ * the rows are mapped straight into {@link OrderResponse}: no entities are loaded, so nothing
+ * lands in the persistence context or gets a dirty-checking snapshot. Orders that are about to
+ * be changed are still loaded through {@link OrderRepository}.
+ *
+ * <p>Long lists can be read through a forward-only cursor instead, fetching
+ * {@code app.export.fetch-size} rows at a time, with each order handed on as soon as its rows end.
+ */
+@Repository
+public class OrderReadRepository {
+
+    private static final String SELECT = "SELECT o.id, o.total_amount, o.status, o.payment_status, o.payment_id, "
+            + "o.courier_name, o.tracking_id, o.order_date, "
+            + "a.full_name, a.phone AS address_phone, a.address_line, a.city, a.state, a.pincode, "
+            + "u.id AS user_id, u.name AS user_name, u.phone AS user_phone, u.email AS user_email, "
+            + "i.product_id, i.product_name, i.quantity_kg, i.price_per_kg "
+            + "FROM orders o "
+            + "JOIN users u ON u.id = o.user_id "
+            + "JOIN addresses a ON a.id = o.address_id "
+            + "LEFT JOIN order_items i ON i.order_id = o.id ";
+    // Each order's item rows must arrive together; an order is complete when the id changes
+    private static final String NEWEST_FIRST = " ORDER BY o.order_date DESC, o.id DESC, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public OrderReadRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = Math.max(fetchSize, 1);
+    }
+
+    public Optional<OrderResponse> findById(Long id) {
+        List<OrderResponse> orders = query("WHERE o.id = ? ORDER BY i.id", id);
+        return orders.isEmpty() ? Optional.empty() : Optional.of(orders.get(0));
+    }
+
+    public List<OrderResponse> findByUserId(Long userId) {
+        return query("WHERE o.user_id = ?" + NEWEST_FIRST, userId);
+    }
+
+    /**
+     * Passes each order placed in {@code start <= order_date < end}, optionally of one status, to
+     * {@code consumer}, newest first. PostgreSQL only streams the cursor inside a transaction.
+     */
+    public void forEachPlacedBetween(LocalDateTime start, LocalDateTime end, OrderStatus status,
+                                     Consumer<OrderResponse> consumer) {
+        String sql = SELECT + "WHERE o.order_date >= ? AND o.order_date < ?"
+                + (status != null ? " AND o.status = ?" : "") + NEWEST_FIRST;
+        OrderMapper mapper = new OrderMapper(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(start));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            if (status != null) {
+                ps.setString(3, status.name());
+            }
+            return ps;
+        }, mapper);
+        mapper.flush();
+    }
+
+    /**
+     * The given orders, newest first.
+     */
+    public List<OrderResponse> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return query("WHERE o.id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")"
+                + NEWEST_FIRST, ids.toArray());
+    }
+
+    private List<OrderResponse> query(String where, Object... args) {
+        List<OrderResponse> orders = new ArrayList<>();
+        OrderMapper mapper = new OrderMapper(orders::add);
+        jdbcTemplate.query(SELECT + where, mapper, args);
+        mapper.flush();
+        return orders;
+    }
+
+    private static final class OrderMapper implements RowCallbackHandler {
+
+        private final Consumer<OrderResponse> consumer;
+        private OrderResponse current;
+
+        OrderMapper(Consumer<OrderResponse> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                flush();
+                current = mapOrder(rs, id);
+            }
+            BigDecimal quantityKg = rs.getBigDecimal("quantity_kg");
+            if (quantityKg != null) {
+                current.getItems().add(mapItem(rs, quantityKg));
+            }
+        }
+
+        void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+
+        private static OrderResponse mapOrder(ResultSet rs, long id) throws SQLException {
+            OrderResponse order = new OrderResponse();
+            order.setId(id);
+            order.setTotalAmount(rs.getBigDecimal("total_amount"));
+            order.setStatus(rs.getString("status"));
+            order.setPaymentStatus(rs.getString("payment_status"));
+            order.setPaymentId(rs.getString("payment_id"));
+            order.setCourierName(rs.getString("courier_name"));
+            order.setTrackingId(rs.getString("tracking_id"));
+            Timestamp orderDate = rs.getTimestamp("order_date");
+            order.setOrderDate(orderDate != null ? orderDate.toLocalDateTime() : null);
+
+            OrderResponse.AddressInfo address = new OrderResponse.AddressInfo();
+            address.setFullName(rs.getString("full_name"));
+            address.setPhone(rs.getString("address_phone"));
+            address.setAddressLine(rs.getString("address_line"));
+            address.setCity(rs.getString("city"));
+            address.setState(rs.getString("state"));
+            address.setPincode(rs.getString("pincode"));
+            order.setAddress(address);
+
+            OrderResponse.CustomerInfo customer = new OrderResponse.CustomerInfo();
+            customer.setId(rs.getLong("user_id"));
+            customer.setName(rs.getString("user_name"));
+            customer.setPhone(rs.getString("user_phone"));
+            customer.setEmail(rs.getString("user_email"));
+            order.setCustomer(customer);
+
+            order.setItems(new ArrayList<>(4));
+            return order;
+        }
+
+        private static OrderResponse.OrderItemInfo mapItem(ResultSet rs, BigDecimal quantityKg) throws SQLException {
+            OrderResponse.OrderItemInfo item = new OrderResponse.OrderItemInfo();
+            long productId = rs.getLong("product_id");
+            item.setProductId(rs.wasNull() ? null : productId);
+            item.setProductName(rs.getString("product_name"));
+            BigDecimal pricePerKg = rs.getBigDecimal("price_per_kg");
+            item.setQuantityKg(quantityKg);
+            item.setPricePerKg(pricePerKg);
+            // Same rounding as OrderItem.getLineTotal
+            item.setLineTotal(Money.ofRupees(pricePerKg).times(Quantity.ofKilograms(quantityKg)).toBigDecimal());
+            return item;
+        }
+    }
+}
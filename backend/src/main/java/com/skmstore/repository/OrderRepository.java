@@ -14,39 +14,22 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.user.id = :userId ORDER BY o.orderDate DESC")
-    List<Order> findByUserIdOrderByOrderDateDesc(@Param("userId") Long userId);
-
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.status = :status ORDER BY o.orderDate DESC")
-    List<Order> findByStatusOrderByOrderDateDesc(@Param("status") OrderStatus status);
-
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.orderDate >= :startOfDay AND o.orderDate < :endOfDay ORDER BY o.orderDate DESC")
-    List<Order> findTodaysOrders(@Param("startOfDay") LocalDateTime startOfDay,
-                                 @Param("endOfDay") LocalDateTime endOfDay);
-
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.orderDate >= :startOfDay AND o.orderDate < :endOfDay AND o.status = :status ORDER BY o.orderDate DESC")
-    List<Order> findTodaysOrdersByStatus(@Param("startOfDay") LocalDateTime startOfDay,
-                                         @Param("endOfDay") LocalDateTime endOfDay,
-                                         @Param("status") OrderStatus status);
-
     @Query("SELECT COUNT(o) FROM Order o WHERE o.orderDate >= :startOfDay AND o.orderDate < :endOfDay")
     long countTodaysOrders(@Param("startOfDay") LocalDateTime startOfDay,
                            @Param("endOfDay") LocalDateTime endOfDay);
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.orderDate >= :startOfDay AND o.orderDate < :endOfDay AND o.paymentStatus = 'PAID'")
+    // Native: totalAmount is a converted Money attribute, so the sum is taken on the raw column
+    @Query(value = "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE order_date >= :startOfDay AND order_date < :endOfDay AND payment_status = 'PAID'", nativeQuery = true)
     java.math.BigDecimal getTodaysRevenue(@Param("startOfDay") LocalDateTime startOfDay,
                                           @Param("endOfDay") LocalDateTime endOfDay);
 
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items ORDER BY o.orderDate DESC")
-    List<Order> findAllByOrderByOrderDateDesc();
-
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.user LEFT JOIN FETCH o.address LEFT JOIN FETCH o.items WHERE o.id = :id")
-    Optional<Order> findByIdWithDetails(@Param("id") Long id);
+    @Query("SELECT o.id FROM Order o WHERE o.paymentId = :paymentId AND o.user.id = :userId")
+    Optional<Long> findIdByPaymentIdAndUserId(@Param("paymentId") String paymentId, @Param("userId") Long userId);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.orderDate >= :start AND o.orderDate < :end")
     long countOrdersBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.orderDate >= :start AND o.orderDate < :end AND o.paymentStatus = 'PAID'")
+    @Query(value = "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE order_date >= :start AND order_date < :end AND payment_status = 'PAID'", nativeQuery = true)
     java.math.BigDecimal getRevenueBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.orderDate >= :start AND o.orderDate < :end AND o.status = :status")
@@ -0,0 +1,115 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.Quantity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and settles pre-orders for the allocation run in chunks, one JDBC batch per statement.
+ */
+@Repository
+public class PreOrderBatchRepository {
+
+    public record QueuedLine(Long productId, Quantity quantityKg) {}
+
+    public record QueuedPreOrder(Long id, Long userId, Long addressId, boolean addressExists, List<QueuedLine> lines) {}
+
+    /**
+     * How a pre-order was settled: {@code orderId} when allocated, else {@code note}.
+     */
+    public record Settlement(Long preOrderId, Long orderId, String note) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PreOrderBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Every queued pre-order with its lines, highest priority first, then oldest first.
+     */
+    public List<QueuedPreOrder> findAllQueued() {
+        return query("WHERE p.status = 'QUEUED' ORDER BY p.priority DESC, p.id, i.product_id");
+    }
+
+    /**
+     * The given pre-orders with their lines, in the order of {@code ids}, skipping any no longer QUEUED.
+     */
+    public List<QueuedPreOrder> findQueued(List<Long> ids) {
+        Map<Long, QueuedPreOrder> byId = new HashMap<>();
+        for (QueuedPreOrder preOrder : query("WHERE p.status = 'QUEUED' AND p.id IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ") ORDER BY p.id, i.product_id",
+                ids.toArray())) {
+            byId.put(preOrder.id(), preOrder);
+        }
+        List<QueuedPreOrder> preOrders = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            QueuedPreOrder preOrder = byId.get(id);
+            if (preOrder != null) {
+                preOrders.add(preOrder);
+            }
+        }
+        return preOrders;
+    }
+
+    /**
+     * Runs the pre-order/lines join; {@code where} must sort each pre-order's lines together.
+     */
+    private List<QueuedPreOrder> query(String where, Object... args) {
+        List<QueuedPreOrder> preOrders = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT p.id, p.user_id, p.address_id, a.id AS found_address_id, i.product_id, i.quantity_kg "
+                        + "FROM pre_orders p "
+                        + "JOIN pre_order_items i ON i.pre_order_id = p.id "
+                        + "LEFT JOIN addresses a ON a.id = p.address_id " + where,
+                (RowCallbackHandler) rs -> {
+                    long id = rs.getLong("id");
+                    QueuedPreOrder current = preOrders.isEmpty() ? null : preOrders.get(preOrders.size() - 1);
+                    if (current == null || current.id() != id) {
+                        current = new QueuedPreOrder(id, rs.getLong("user_id"), rs.getLong("address_id"),
+                                rs.getObject("found_address_id") != null, new ArrayList<>());
+                        preOrders.add(current);
+                    }
+                    current.lines().add(new QueuedLine(rs.getLong("product_id"), Quantity.ofKilograms(rs.getBigDecimal("quantity_kg"))));
+                },
+                args);
+        return preOrders;
+    }
+
+    /**
+     * Records the outcome of each pre-order that is still QUEUED. Returns false if any of them
+     * was not (cancelled meanwhile); the caller must then roll back.
+     */
+    public boolean settle(List<Settlement> settlements, LocalDateTime now) {
+        if (settlements.isEmpty()) {
+            return true;
+        }
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE pre_orders SET status = ?, order_id = ?, note = ?, updated_at = ? "
+                        + "WHERE id = ? AND status = 'QUEUED'",
+                settlements, settlements.size(), (ps, settlement) -> {
+                    ps.setString(1, settlement.orderId() != null ? "ALLOCATED" : "UNFULFILLED");
+                    ps.setObject(2, settlement.orderId());
+                    ps.setString(3, settlement.note());
+                    ps.setTimestamp(4, updatedAt);
+                    ps.setLong(5, settlement.preOrderId());
+                })[0];
+        for (int count : counts) {
+            if (count == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.PreOrder;
+import com.skmstore.model.PreOrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PreOrderRepository extends JpaRepository<PreOrder, Long> {
+
+    @Query("SELECT DISTINCT p FROM PreOrder p LEFT JOIN FETCH p.items WHERE p.userId = :userId ORDER BY p.id DESC")
+    List<PreOrder> findByUserIdWithItems(@Param("userId") Long userId);
+
+    long countByStatus(PreOrderStatus status);
+
+    /**
+     * Changes the status only while the pre-order is still QUEUED, so a cancel cannot undo an allocation.
+     */
+    @Modifying
+    @Query("UPDATE PreOrder p SET p.status = :status, p.updatedAt = :now WHERE p.id = :id AND p.userId = :userId AND p.status = 'QUEUED'")
+    int updateQueuedStatus(@Param("id") Long id, @Param("userId") Long userId,
+                           @Param("status") PreOrderStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PreOrder p SET p.priority = :priority, p.updatedAt = :now WHERE p.id = :id AND p.status = 'QUEUED'")
+    int updateQueuedPriority(@Param("id") Long id, @Param("priority") int priority, @Param("now") LocalDateTime now);
+}
@@ -1,15 +0,0 @@
-package com.skmstore.repository;
-
-import com.skmstore.model.ProductAttribute;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-
-@Repository
-public interface ProductAttributeRepository extends JpaRepository<ProductAttribute, Long> {
-
-    List<ProductAttribute> findByProductId(Long productId);
-
-    void deleteByProductId(Long productId);
-}
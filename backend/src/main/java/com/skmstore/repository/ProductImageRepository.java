@@ -0,0 +1,9 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.ProductImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductImageRepository extends JpaRepository<ProductImage, String> {
+}
@@ -1,20 +1,50 @@
 package com.skmstore.repository;
 
 import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByActiveTrue();
 
-    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.attributes WHERE p.active = true ORDER BY p.name ASC")
     List<Product> findByActiveTrueOrderByNameAsc();
 
-    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.attributes WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) AND p.active = true")
-    List<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name);
+    List<Product> findAllByOrderByNameAsc();
+
+    // Read-only entities keep no dirty-checking snapshot; rows arrive in batches from the cursor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    boolean existsByIdAndImageHash(Long id, String imageHash);
+
+    // Adds to whatever is stored, so orders committed since the edit was loaded are kept
+    @Modifying
+    @Query(value = "UPDATE products SET stock_kg = GREATEST(stock_kg + :deltaKg, 0), updated_at = :now WHERE id = :id",
+            nativeQuery = true)
+    int adjustStock(@Param("id") Long id, @Param("deltaKg") BigDecimal deltaKg, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.stockKg FROM Product p WHERE p.id = :id")
+    Quantity findStockKgById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT p.imageHash FROM Product p WHERE p.imageHash IS NOT NULL ORDER BY p.imageHash")
+    List<String> findImageHashes(Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.skmstore.repository;
+
+import com.skmstore.model.StockHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    /**
+     * Locks the rows so expiry and order placement cannot both consume the same hold.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.holdId IN :holdIds ORDER BY h.id")
+    List<StockHold> findByHoldIdInForUpdate(@Param("holdIds") Collection<String> holdIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.userId = :userId ORDER BY h.id")
+    List<StockHold> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    interface HoldExpiry {
+        String getHoldId();
+        LocalDateTime getExpiresAt();
+    }
+
+    @Query("SELECT DISTINCT h.holdId AS holdId, h.expiresAt AS expiresAt FROM StockHold h")
+    List<HoldExpiry> findHoldExpiries();
+}
@@ -0,0 +1,72 @@
+package com.skmstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Order items sold from the in-memory flash-sale counters are written with
+ * {@code stock_reconciled = false}; this repository folds them into {@code products.stock_kg}.
+ */
+@Repository
+public class StockReconciliationRepository {
+
+    public record UnreconciledItem(Long id, Long productId, BigDecimal quantityKg) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockReconciliationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stock per product as the counters should see it: the stored value minus items not yet
+     * reconciled and minus stock held for checkouts from the counters.
+     */
+    public Map<Long, BigDecimal> findAvailableStock() {
+        Map<Long, BigDecimal> available = new TreeMap<>();
+        jdbcTemplate.query("SELECT p.id, p.stock_kg"
+                + " - COALESCE((SELECT SUM(oi.quantity_kg) FROM order_items oi"
+                + " WHERE oi.product_id = p.id AND oi.stock_reconciled = FALSE), 0)"
+                + " - COALESCE((SELECT SUM(h.quantity_kg) FROM stock_holds h"
+                + " WHERE h.product_id = p.id AND h.flash_sale = TRUE), 0)"
+                + " FROM products p", rs -> {
+            available.put(rs.getLong(1), rs.getBigDecimal(2));
+        });
+        return available;
+    }
+
+    public List<UnreconciledItem> findUnreconciledItems(int limit) {
+        return jdbcTemplate.query("SELECT id, product_id, quantity_kg FROM order_items "
+                        + "WHERE stock_reconciled = FALSE ORDER BY id LIMIT ?",
+                (rs, row) -> new UnreconciledItem(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3)), limit);
+    }
+
+    /**
+     * Subtracts the items from their products (one batched UPDATE per product, in id order) and
+     * marks them reconciled, both in the caller's transaction.
+     */
+    public void reconcile(List<UnreconciledItem> items, LocalDateTime now) {
+        Map<Long, BigDecimal> totals = new TreeMap<>();
+        for (UnreconciledItem item : items) {
+            totals.merge(item.productId(), item.quantityKg(), BigDecimal::add);
+        }
+        List<Map.Entry<Long, BigDecimal>> lines = new ArrayList<>(totals.entrySet());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate("UPDATE products SET stock_kg = stock_kg - ?, updated_at = ? WHERE id = ?",
+                lines, lines.size(), (ps, line) -> {
+                    ps.setBigDecimal(1, line.getValue());
+                    ps.setTimestamp(2, updatedAt);
+                    ps.setLong(3, line.getKey());
+                });
+        jdbcTemplate.batchUpdate("UPDATE order_items SET stock_reconciled = TRUE WHERE id = ?",
+                items, items.size(), (ps, item) -> ps.setLong(1, item.id()));
+    }
+}
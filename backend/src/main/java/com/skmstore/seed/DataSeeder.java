@@ -10,9 +10,9 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 @Component
@@ -23,7 +23,6 @@ public class DataSeeder implements CommandLineRunner {
     private final UserRepository userRepository;
     private final AppSettingRepository appSettingRepository;
     private final ProductRepository productRepository;
-    private final ProductAttributeRepository productAttributeRepository;
     private final AddressRepository addressRepository;
     private final OrderRepository orderRepository;
     private final PasswordEncoder passwordEncoder;
@@ -49,14 +48,12 @@ public class DataSeeder implements CommandLineRunner {
     public DataSeeder(UserRepository userRepository,
                       AppSettingRepository appSettingRepository,
                       ProductRepository productRepository,
-                      ProductAttributeRepository productAttributeRepository,
                       AddressRepository addressRepository,
                       OrderRepository orderRepository,
                       PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.appSettingRepository = appSettingRepository;
         this.productRepository = productRepository;
-        this.productAttributeRepository = productAttributeRepository;
         this.addressRepository = addressRepository;
         this.orderRepository = orderRepository;
         this.passwordEncoder = passwordEncoder;
@@ -119,15 +116,13 @@ public class DataSeeder implements CommandLineRunner {
             Product p = new Product();
             p.setName(pd.name());
             p.setDescription(pd.description());
-            p.setOriginalPrice(pd.originalPrice());
-            p.setSalePrice(pd.salePrice());
-            p.setStockKg(pd.stockKg());
-            p.setMinOrderKg(pd.minOrderKg());
+            p.setOriginalPrice(Money.ofRupees(pd.originalPrice()));
+            p.setSalePrice(Money.ofRupees(pd.salePrice()));
+            p.setStockKg(Quantity.ofKilograms(pd.stockKg()));
+            p.setMinOrderKg(Quantity.ofKilograms(pd.minOrderKg()));
+            p.setAttributes(new LinkedHashMap<>(pd.attributes()));
             productRepository.save(p);
 
-            pd.attributes().forEach((key, value) ->
-                    productAttributeRepository.save(new ProductAttribute(p, key, value)));
-
             saved.add(p);
         }
         log.info("{} demo products seeded", saved.size());
@@ -159,7 +154,7 @@ public class DataSeeder implements CommandLineRunner {
             return;
         }
 
-        BigDecimal totalRevenue = BigDecimal.ZERO;
+        Money totalRevenue = Money.ZERO;
         for (DemoData.OrderData od : DemoData.ORDERS) {
             Order order = new Order();
             order.setUser(user);
@@ -169,19 +164,19 @@ public class DataSeeder implements CommandLineRunner {
             order.setCourierName(od.courierName());
             order.setTrackingId(od.trackingId());
 
-            BigDecimal orderTotal = BigDecimal.ZERO;
+            Money orderTotal = Money.ZERO;
             for (DemoData.OrderItemData oid : od.items()) {
                 Product product = products.get(oid.productIndex());
-                BigDecimal price = product.getSalePrice() != null ? product.getSalePrice() : product.getOriginalPrice();
+                Money price = product.getSalePrice() != null ? product.getSalePrice() : product.getOriginalPrice();
 
                 OrderItem item = new OrderItem();
                 item.setProduct(product);
                 item.setProductName(product.getName());
-                item.setQuantityKg(oid.quantityKg());
+                item.setQuantityKg(Quantity.ofKilograms(oid.quantityKg()));
                 item.setPricePerKg(price);
                 order.addItem(item);
 
-                orderTotal = orderTotal.add(price.multiply(oid.quantityKg()));
+                orderTotal = orderTotal.plus(item.getLineTotal());
             }
             order.setTotalAmount(orderTotal);
 
@@ -193,7 +188,7 @@ public class DataSeeder implements CommandLineRunner {
             }
 
             orderRepository.save(order);
-            totalRevenue = totalRevenue.add(orderTotal);
+            totalRevenue = totalRevenue.plus(orderTotal);
         }
         log.info("{} demo orders seeded (total: Rs.{})", DemoData.ORDERS.size(), totalRevenue);
     }
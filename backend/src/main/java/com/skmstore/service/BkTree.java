@@ -0,0 +1,106 @@
+package com.skmstore.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Burkhard-Keller tree over Levenshtein distance. A lookup only descends into children whose
+ * edge distance is within {@code maxDistance} of the query's distance to the parent, so most of
+ * the tree is never visited.
+ */
+final class BkTree {
+
+    private static final class Node {
+        final String term;
+        Node[] children = new Node[0];
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+
+    private Node root;
+
+    void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return;
+            }
+            if (distance >= node.children.length) {
+                node.children = Arrays.copyOf(node.children, distance + 1);
+            }
+            if (node.children[distance] == null) {
+                node.children[distance] = new Node(term);
+                return;
+            }
+            node = node.children[distance];
+        }
+    }
+
+    /**
+     * Terms within {@code maxDistance} of {@code query}, closest first. Stops early once
+     * {@code deadlineNanos} (a {@link System#nanoTime()} value) passes, returning what it found.
+     */
+    List<String> search(String query, int maxDistance, long deadlineNanos) {
+        List<String> matches = new ArrayList<>();
+        List<Integer> distances = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        int visited = 0;
+        while (!pending.isEmpty()) {
+            if ((++visited & 63) == 0 && System.nanoTime() > deadlineNanos) {
+                break;
+            }
+            Node node = pending.pop();
+            int distance = distance(query, node.term);
+            if (distance <= maxDistance) {
+                int at = 0;
+                while (at < distances.size() && distances.get(at) <= distance) {
+                    at++;
+                }
+                matches.add(at, node.term);
+                distances.add(at, distance);
+            }
+            int from = Math.max(1, distance - maxDistance);
+            int to = Math.min(node.children.length - 1, distance + maxDistance);
+            for (int d = from; d <= to; d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
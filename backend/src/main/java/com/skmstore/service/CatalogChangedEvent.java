@@ -0,0 +1,12 @@
+package com.skmstore.service;
+
+/**
+ * Published whenever a write may have changed what the public catalog shows
+ * (product fields, active flag or stock). Handled after the transaction commits.
+ */
+public record CatalogChangedEvent(Long productId) {
+
+    public static CatalogChangedEvent allProducts() {
+        return new CatalogChangedEvent(null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ApiResponse;
+import com.skmstore.dto.response.ProductFilterResponse;
+import com.skmstore.dto.response.ProductResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned view of the product catalog held in memory.
+ * A new snapshot is built after every committed catalog change and swapped in atomically,
+ * so readers never see a half-built catalog and never touch the database. The public product
+ * list and each product detail are also kept as ready-made response bytes (with ETags), so
+ * serving them, or answering 304, costs no serialization.
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, List.of(), new SearchSynonyms(""),
+            response -> null, null);
+
+    private final long version;
+    private final List<ProductResponse> activeProducts;
+    private final Map<Long, ProductResponse> productsById;
+    private final PrecompressedBody activeProductsBody;
+    private final Map<Long, PrecompressedBody> productBodies;
+    private final long lastModified;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+
+    private CatalogSnapshot(long version, List<ProductResponse> products, SearchSynonyms synonyms,
+                            Function<ApiResponse, PrecompressedBody> encoder, CatalogSnapshot previous) {
+        this.version = version;
+        Map<Long, ProductResponse> byId = new HashMap<>();
+        Map<Long, PrecompressedBody> bodies = new HashMap<>();
+        for (ProductResponse product : products) {
+            byId.put(product.getId(), product);
+            bodies.put(product.getId(), encoder.apply(ApiResponse.success("Product retrieved", product)));
+        }
+        this.activeProducts = products.stream().filter(ProductResponse::isActive).toList();
+        this.productsById = Map.copyOf(byId);
+        this.productBodies = Map.copyOf(bodies);
+        this.activeProductsBody = encoder.apply(ApiResponse.success("Products retrieved", activeProducts));
+        this.lastModified = activeProducts.stream()
+                .mapToLong(CatalogSnapshot::lastModified)
+                .max().orElse(-1);
+        this.searchIndex = ProductSearchIndex.build(activeProducts, synonyms,
+                previous != null ? previous.searchIndex : null);
+        this.facetIndex = ProductFacetIndex.build(activeProducts,
+                previous != null ? previous.facetIndex : null);
+    }
+
+    /**
+     * @param products every product (active or not), already sorted by name
+     * @param synonyms aliases the search index also files product text under
+     * @param encoder  renders a response envelope to its ready-made bytes
+     * @param previous the snapshot being replaced, whose indexes are reused where their input is unchanged
+     */
+    static CatalogSnapshot of(long version, List<ProductResponse> products, SearchSynonyms synonyms,
+                              Function<ApiResponse, PrecompressedBody> encoder, CatalogSnapshot previous) {
+        return new CatalogSnapshot(version, products, synonyms, encoder, previous);
+    }
+
+    /**
+     * Epoch millis of the product's last change, or -1 when unknown.
+     */
+    public static long lastModified(ProductResponse product) {
+        LocalDateTime updatedAt = product.getUpdatedAt();
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<ProductResponse> getActiveProducts() {
+        return activeProducts;
+    }
+
+    public PrecompressedBody getActiveProductsBody() {
+        return activeProductsBody;
+    }
+
+    /**
+     * Latest change among the active products, in epoch millis (-1 when unknown).
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public PrecompressedBody getProductBody(Long id) {
+        return id == null ? null : productBodies.get(id);
+    }
+
+    /**
+     * Ranked search over active products; every query word must match the start of a word in
+     * the name, description or attribute values.
+     */
+    public List<ProductResponse> search(String query, int limit) {
+        return searchIndex.search(query, limit).stream().map(activeProducts::get).toList();
+    }
+
+    /**
+     * Filters active products by attribute values, price band and stock, with facet counts.
+     */
+    public ProductFilterResponse filter(Map<String, Set<String>> attributes, Set<String> priceBands, boolean inStock) {
+        ProductFacetIndex.Result result = facetIndex.filter(
+                new ProductFacetIndex.Selection(attributes, priceBands, inStock));
+        ProductFilterResponse response = new ProductFilterResponse();
+        response.setProducts(result.ordinals().stream().map(activeProducts::get).toList());
+        response.setAttributeFacets(result.attributeCounts());
+        response.setPriceBandFacets(result.priceBandCounts());
+        response.setInStockCount(result.inStockCount());
+        return response;
+    }
+
+    public ProductResponse getProduct(Long id) {
+        return id == null ? null : productsById.get(id);
+    }
+
+    /**
+     * Whether {@code hash} is the product's current image (active or not).
+     */
+    public boolean hasImage(Long id, String hash) {
+        ProductResponse product = getProduct(id);
+        return product != null && product.getImageUrl() != null
+                && product.getImageUrl().equals(ImageStore.urlFor(id, hash));
+    }
+}
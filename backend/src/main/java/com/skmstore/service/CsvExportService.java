@@ -0,0 +1,143 @@
+package com.skmstore.service;
+
+import com.skmstore.repository.ExportRepository;
+import com.skmstore.repository.ExportRepository.ExportedItem;
+import com.skmstore.repository.ExportRepository.ExportedOrder;
+import com.skmstore.repository.ExportRepository.ExportedUser;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes exports as CSV straight from a database cursor to a stream. Memory stays flat whatever
+ * the row count: one record and one write buffer at a time.
+ */
+@Service
+public class CsvExportService {
+
+    private static final String[] ORDER_HEADER = {"Order ID", "Date", "Customer", "Phone", "Full Address", "City",
+            "State", "Pincode", "Items", "Total", "Status", "Courier", "Tracking"};
+    private static final String[] USER_HEADER = {"ID", "Name", "Phone", "Email", "Role", "Active", "Created At"};
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final LongConsumer NO_PROGRESS = rows -> {};
+
+    private final ExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CsvExportService(ExportRepository exportRepository, TransactionTemplate transactionTemplate) {
+        this.exportRepository = exportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void writeOrdersCsv(LocalDate from, LocalDate to, OutputStream out) {
+        writeOrdersCsv(from, to, out, NO_PROGRESS);
+    }
+
+    /**
+     * Orders placed from {@code from} through {@code to} (both optional, inclusive), newest first.
+     * {@code progress} gets the running row count after each order; throwing from it stops the export.
+     */
+    public void writeOrdersCsv(LocalDate from, LocalDate to, OutputStream out, LongConsumer progress) {
+        CsvWriter csv = open(out, ORDER_HEADER);
+        long[] rows = {0};
+        // The cursor only streams inside a transaction (PostgreSQL fetches everything otherwise)
+        readOnlyTransaction.executeWithoutResult(status -> exportRepository.forEachOrder(
+                startOf(from), endOf(to),
+                order -> {
+                    writeOrderRow(csv, order);
+                    progress.accept(++rows[0]);
+                }));
+        csv.flush();
+    }
+
+    public long countOrders(LocalDate from, LocalDate to) {
+        return exportRepository.countOrders(startOf(from), endOf(to));
+    }
+
+    public void writeUsersCsv(OutputStream out, LongConsumer progress) {
+        CsvWriter csv = open(out, USER_HEADER);
+        long[] rows = {0};
+        readOnlyTransaction.executeWithoutResult(status -> exportRepository.forEachUser(user -> {
+            writeUserRow(csv, user);
+            progress.accept(++rows[0]);
+        }));
+        csv.flush();
+    }
+
+    public long countUsers() {
+        return exportRepository.countUsers();
+    }
+
+    private CsvWriter open(OutputStream out, String[] header) {
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                WRITE_BUFFER_CHARS));
+        for (String column : header) {
+            csv.plain(column);
+        }
+        csv.endRow();
+        return csv;
+    }
+
+    private void writeOrderRow(CsvWriter csv, ExportedOrder order) {
+        LocalDateTime orderDate = order.orderDate();
+        csv.plain(Long.toString(order.id()))
+                .quoted(orderDate != null ? orderDate.toString() : "")
+                .quoted(order.customerName())
+                .quoted(order.customerPhone());
+
+        csv.openQuoted()
+                .text(order.fullName()).text(", ")
+                .text(order.addressLine()).text(", ")
+                .text(order.city()).text(", ")
+                .text(order.state()).text(", ")
+                .text(order.pincode())
+                .closeQuoted();
+        csv.quoted(order.city())
+                .quoted(order.state())
+                .quoted(order.pincode());
+
+        csv.openQuoted();
+        for (int i = 0; i < order.items().size(); i++) {
+            ExportedItem item = order.items().get(i);
+            if (i > 0) {
+                csv.text(" | ");
+            }
+            csv.text(item.productName()).text(" ").text(item.quantityKg().toPlainString()).text("kg");
+        }
+        csv.closeQuoted();
+
+        csv.plain(order.totalAmount() != null ? order.totalAmount().setScale(2, RoundingMode.HALF_UP).toPlainString() : "")
+                .plain(order.status())
+                .quoted(order.courierName())
+                .quoted(order.trackingId())
+                .endRow();
+    }
+
+    private void writeUserRow(CsvWriter csv, ExportedUser user) {
+        csv.plain(Long.toString(user.id()))
+                .quoted(user.name())
+                .quoted(user.phone())
+                .quoted(user.email())
+                .plain(user.role())
+                .plain(user.active() ? "true" : "false")
+                .quoted(user.createdAt() != null ? user.createdAt().toString() : "")
+                .endRow();
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+}
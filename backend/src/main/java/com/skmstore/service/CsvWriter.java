@@ -0,0 +1,105 @@
+package com.skmstore.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 writer over a buffered {@link Writer}. Values are copied straight into the
+ * buffer with quotes doubled, so writing a row builds no intermediate strings. A quoted field
+ * may be assembled from several pieces between {@link #openQuoted()} and {@link #closeQuoted()}.
+ */
+final class CsvWriter {
+
+    private final Writer out;
+    private boolean rowStarted;
+
+    CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a value that needs no escaping (numbers, enum names) as is.
+     */
+    CsvWriter plain(CharSequence value) {
+        try {
+            separate();
+            if (value != null) {
+                out.append(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    CsvWriter quoted(String value) {
+        return openQuoted().text(value).closeQuoted();
+    }
+
+    CsvWriter openQuoted() {
+        try {
+            separate();
+            out.write('"');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Appends to the open quoted field; null writes nothing.
+     */
+    CsvWriter text(String value) {
+        if (value == null) {
+            return this;
+        }
+        try {
+            int start = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '"') {
+                    out.write(value, start, i + 1 - start);
+                    out.write('"');
+                    start = i + 1;
+                }
+            }
+            out.write(value, start, value.length() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    CsvWriter closeQuoted() {
+        try {
+            out.write('"');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    void endRow() {
+        try {
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowStarted = false;
+    }
+
+    void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void separate() throws IOException {
+        if (rowStarted) {
+            out.write(',');
+        }
+        rowStarted = true;
+    }
+}
@@ -0,0 +1,293 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ExportJobResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.exception.ResourceNotFoundException;
+import com.skmstore.model.ExportType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs big CSV exports in the background so they never hold a request open behind a proxy
+ * timeout. A job is submitted, polled for progress, then its gzipped CSV is downloaded from
+ * {@code app.export-jobs.dir}. At most {@code threads} jobs run at once with
+ * {@code queue-capacity} more waiting; anything beyond that is refused. Finished jobs and their
+ * files are removed after {@code retention-minutes}.
+ * <p>
+ * Jobs are kept in memory per instance; files left by a previous run are deleted at startup.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    private static final String FILE_SUFFIX = ".csv.gz";
+    private static final String PART_SUFFIX = ".part";
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    private enum Status { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    /**
+     * Thrown from the progress callback to stop a cancelled job. Not an IllegalStateException,
+     * which repository exception translation would turn into a data access failure.
+     */
+    private static final class ExportCancelled extends RuntimeException {
+        ExportCancelled() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final ExportType type;
+        final LocalDate from;
+        final LocalDate to;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicLong rowsWritten = new AtomicLong();
+        volatile long totalRows;
+        volatile Status status = Status.QUEUED;
+        volatile boolean cancelled;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+        volatile Path file;
+        volatile Future<?> future;
+
+        Job(ExportType type, LocalDate from, LocalDate to) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isFinished() {
+            return status == Status.DONE || status == Status.FAILED || status == Status.CANCELLED;
+        }
+    }
+
+    private final CsvExportService csvExportService;
+    private final Path directory;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(CsvExportService csvExportService,
+                            @Value("${app.export-jobs.dir:${java.io.tmpdir}/skm-exports}") String directory,
+                            @Value("${app.export-jobs.threads:2}") int threads,
+                            @Value("${app.export-jobs.queue-capacity:10}") int queueCapacity,
+                            @Value("${app.export-jobs.retention-minutes:60}") long retentionMinutes) throws IOException {
+        this.csvExportService = csvExportService;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        int poolSize = Math.max(threads, 1);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                Thread.ofPlatform().name("export-job-", 1).daemon().factory());
+        deleteLeftoverFiles();
+    }
+
+    public ExportJobResponse submit(ExportType type, LocalDate from, LocalDate to) {
+        if (type == ExportType.ORDERS && from != null && to != null && to.isBefore(from)) {
+            throw new BusinessException("Export end date is before its start date");
+        }
+        Job job = new Job(type, from, to);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new BusinessException("Too many exports are in progress, please try again shortly");
+        }
+        return toResponse(job);
+    }
+
+    public ExportJobResponse getJob(String id) {
+        return toResponse(find(id));
+    }
+
+    public List<ExportJobResponse> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job job) -> job.createdAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * The finished file, for download.
+     */
+    public Path getFile(String id) {
+        Job job = find(id);
+        Path file = job.file;
+        if (job.status != Status.DONE || file == null || !Files.exists(file)) {
+            throw new BusinessException("Export is not ready for download");
+        }
+        return file;
+    }
+
+    public String getFileName(String id) {
+        Job job = find(id);
+        String range = job.type == ExportType.ORDERS && (job.from != null || job.to != null)
+                ? "-" + (job.from != null ? job.from : "start") + "-to-" + (job.to != null ? job.to : "now")
+                : "";
+        return job.type.name().toLowerCase() + range + FILE_SUFFIX;
+    }
+
+    /**
+     * Stops a queued or running job; a finished job is discarded along with its file.
+     */
+    public void cancel(String id) {
+        Job job = find(id);
+        if (job.isFinished()) {
+            discard(job);
+            return;
+        }
+        job.cancelled = true;
+        // A running job stops at its next row; one still queued is skipped by the executor
+        Future<?> future = job.future;
+        if (job.status == Status.QUEUED && future != null && future.cancel(false)) {
+            finish(job, Status.CANCELLED, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.export-jobs.cleanup-ms:300000}")
+    public void removeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        for (Job job : jobs.values()) {
+            if (job.isFinished() && job.finishedAt != null && job.finishedAt.isBefore(cutoff)) {
+                discard(job);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        if (job.cancelled) {
+            finish(job, Status.CANCELLED, null);
+            return;
+        }
+        job.status = Status.RUNNING;
+        Path part = directory.resolve(job.id + FILE_SUFFIX + PART_SUFFIX);
+        long start = System.nanoTime();
+        try {
+            job.totalRows = job.type == ExportType.ORDERS
+                    ? csvExportService.countOrders(job.from, job.to)
+                    : csvExportService.countUsers();
+            LongConsumer progress = rows -> {
+                job.rowsWritten.set(rows);
+                if (job.cancelled) {
+                    throw new ExportCancelled();
+                }
+            };
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(part), GZIP_BUFFER_BYTES)) {
+                if (job.type == ExportType.ORDERS) {
+                    csvExportService.writeOrdersCsv(job.from, job.to, out, progress);
+                } else {
+                    csvExportService.writeUsersCsv(out, progress);
+                }
+            }
+            Path file = directory.resolve(job.id + FILE_SUFFIX);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            job.file = file;
+            finish(job, Status.DONE, null);
+            log.info("Export {} ({}) finished: {} rows in {} ms", job.id, job.type, job.rowsWritten.get(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (ExportCancelled e) {
+            deleteQuietly(part);
+            finish(job, Status.CANCELLED, null);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            log.error("Export {} ({}) failed", job.id, job.type, e);
+            finish(job, Status.FAILED, "Export failed, please try again");
+        }
+    }
+
+    private void finish(Job job, Status status, String error) {
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        job.status = status;
+    }
+
+    private void discard(Job job) {
+        jobs.remove(job.id);
+        if (job.file != null) {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private Job find(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export not found or expired");
+        }
+        return job;
+    }
+
+    private ExportJobResponse toResponse(Job job) {
+        ExportJobResponse response = new ExportJobResponse();
+        response.setId(job.id);
+        response.setType(job.type.name());
+        response.setStatus(job.status.name());
+        response.setRowsWritten(job.rowsWritten.get());
+        response.setTotalRows(job.totalRows);
+        response.setError(job.error);
+        response.setCreatedAt(job.createdAt);
+        response.setFinishedAt(job.finishedAt);
+        if (job.finishedAt != null) {
+            response.setExpiresAt(job.finishedAt.plus(retention));
+        }
+        Path file = job.file;
+        if (file != null) {
+            try {
+                response.setFileSizeBytes(Files.size(file));
+            } catch (IOException e) {
+                response.setFileSizeBytes(null);
+            }
+        }
+        return response;
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX + "*")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+}
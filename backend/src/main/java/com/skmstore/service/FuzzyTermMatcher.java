@@ -0,0 +1,94 @@
+package com.skmstore.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typo and transliteration tolerant lookup over the index's terms. A phonetic key folds the
+ * spelling variants common in romanised Indian names (ph/f, w/v, ee/i, oo/u, doubled letters,
+ * aspirated consonants), and a {@link BkTree} catches the remaining typos by edit distance.
+ * For half-typed words (the search box) it finally compares the token with term prefixes.
+ */
+final class FuzzyTermMatcher {
+
+    static final int MIN_TOKEN_LENGTH = 4;
+
+    private final BkTree tree = new BkTree();
+    private final Map<String, List<String>> termsByPhoneticKey = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+
+    FuzzyTermMatcher(Collection<String> indexedTerms) {
+        for (String term : indexedTerms) {
+            if (term.length() >= MIN_TOKEN_LENGTH - 1) {
+                tree.add(term);
+                termsByPhoneticKey.computeIfAbsent(phoneticKey(term), k -> new ArrayList<>()).add(term);
+                terms.add(term);
+            }
+        }
+    }
+
+    /**
+     * Indexed terms that plausibly mean {@code token}: same phonetic key first, then edit-distance
+     * neighbours. Returns whatever was found when the deadline passes.
+     */
+    List<String> match(String token, long deadlineNanos) {
+        if (token.length() < MIN_TOKEN_LENGTH) {
+            return List.of();
+        }
+        Set<String> matches = new LinkedHashSet<>(termsByPhoneticKey.getOrDefault(phoneticKey(token), List.of()));
+        matches.addAll(tree.search(token, maxDistance(token), deadlineNanos));
+        if (matches.isEmpty()) {
+            matches.addAll(matchPrefixes(token, deadlineNanos));
+        }
+        return List.copyOf(matches);
+    }
+
+    private List<String> matchPrefixes(String token, long deadlineNanos) {
+        List<String> matches = new ArrayList<>();
+        int maxDistance = maxDistance(token);
+        for (int i = 0; i < terms.size(); i++) {
+            if ((i & 63) == 63 && System.nanoTime() > deadlineNanos) {
+                break;
+            }
+            String term = terms.get(i);
+            if (term.length() > token.length()
+                    && BkTree.distance(token, term.substring(0, token.length())) <= maxDistance) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    private static int maxDistance(String token) {
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    static String phoneticKey(String term) {
+        String folded = term.replace("ph", "f").replace("w", "v").replace("z", "j")
+                .replace("ee", "i").replace("oo", "u").replace("ou", "u");
+        StringBuilder key = new StringBuilder(folded.length());
+        char previous = 0;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c == previous) {
+                continue;
+            }
+            // Aspiration is written inconsistently (bh/b, dh/d, kh/k)
+            if (c == 'h' && previous != 0 && !isVowel(previous)) {
+                continue;
+            }
+            key.append(c);
+            previous = c;
+        }
+        return key.toString();
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,148 @@
+package com.skmstore.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: one thread advances a ring of buckets once per tick and expires the
+ * entries of the current bucket, so scheduling and cancelling are O(1) and tens of thousands of
+ * pending timeouts cost one thread and one object each. Deadlines are rounded up to a tick.
+ * Only the worker thread touches the buckets; other threads hand entries over through a queue.
+ */
+final class HashedTimingWheel<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private static final class Entry<K> {
+        final K key;
+        final long deadlineTick;
+        long rounds;
+
+        Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Queue<Entry<K>>> buckets;
+    private final Queue<Entry<K>> pending = new ConcurrentLinkedQueue<>();
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final Consumer<List<K>> onExpired;
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private long tick;
+
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     * @param onExpired called on the wheel thread with the keys that expired in one tick
+     */
+    HashedTimingWheel(String name, long tickMillis, int wheelSize, Consumer<List<K>> onExpired) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(tickMillis, 1));
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.onExpired = onExpired;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts the wheel thread. Entries scheduled before this expire on time once it runs.
+     */
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * Schedules {@code key} to expire after the delay, replacing any earlier schedule for it.
+     */
+    void schedule(K key, long delayMillis) {
+        long elapsed = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0));
+        Entry<K> entry = new Entry<>(key, (elapsed + tickNanos - 1) / tickNanos);
+        entries.put(key, entry);
+        pending.add(entry);
+    }
+
+    /**
+     * Returns false if the key was not scheduled or has already expired.
+     */
+    boolean cancel(K key) {
+        // The entry stays in its bucket and is dropped when the wheel reaches it
+        return entries.remove(key) != null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void stop() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long wait = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            transferPending();
+            List<K> expired = expire(buckets.get((int) (tick & mask)));
+            tick++;
+            if (!expired.isEmpty()) {
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException e) {
+                    log.error("Expiry handler failed for {} keys", expired.size(), e);
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Entry<K> entry;
+        while ((entry = pending.poll()) != null) {
+            if (entries.get(entry.key) != entry) {
+                continue;
+            }
+            long target = Math.max(entry.deadlineTick, tick);
+            entry.rounds = (target - tick) / buckets.size();
+            buckets.get((int) (target & mask)).add(entry);
+        }
+    }
+
+    private List<K> expire(Queue<Entry<K>> bucket) {
+        List<K> expired = new ArrayList<>();
+        for (Iterator<Entry<K>> it = bucket.iterator(); it.hasNext(); ) {
+            Entry<K> entry = it.next();
+            if (entries.get(entry.key) != entry) {
+                it.remove();
+            } else if (entry.rounds <= 0) {
+                it.remove();
+                if (entries.remove(entry.key, entry)) {
+                    expired.add(entry.key);
+                }
+            } else {
+                entry.rounds--;
+            }
+        }
+        return expired;
+    }
+}
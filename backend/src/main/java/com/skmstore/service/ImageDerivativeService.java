@@ -0,0 +1,229 @@
+package com.skmstore.service;
+
+import com.skmstore.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the {@link ImageVariant} derivatives of uploaded images with plain JDK ImageIO on a
+ * small bounded pool, so uploads return immediately and customers download a size that fits
+ * the screen instead of the original photo.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 50;
+    private static final float JPEG_QUALITY = 0.82f;
+    // 64 MP: beyond any product photo, and still only the header is read before refusing it
+    static final long MAX_SOURCE_PIXELS = 64_000_000L;
+
+    private final ImageStore imageStore;
+    private final ProductRepository productRepository;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public ImageDerivativeService(ImageStore imageStore, ProductRepository productRepository) {
+        this.imageStore = imageStore;
+        this.productRepository = productRepository;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Image decoding is memory-heavy: keep the pool and its queue small. Anything rejected
+        // is regenerated lazily on the next request for a missing variant.
+        this.executor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(100),
+                r -> {
+                    Thread thread = new Thread(r, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues generation of any missing variants for the image. Duplicate requests for an image
+     * that is already being processed are ignored.
+     */
+    public void generateAsync(String hash) {
+        if (hash == null || !inFlight.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            log.warn("Derivative queue full, skipping image {} for now", hash);
+        }
+    }
+
+    /**
+     * Backfills derivatives for images uploaded before the pipeline existed (or lost with the
+     * local disk), a page of products at a time on the derivative pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        executor.execute(() -> {
+            int page = 0;
+            int generated = 0;
+            List<String> hashes;
+            do {
+                hashes = productRepository.findImageHashes(PageRequest.of(page++, BACKFILL_BATCH_SIZE));
+                for (String hash : hashes) {
+                    if (inFlight.add(hash)) {
+                        try {
+                            generated += generate(hash);
+                        } finally {
+                            inFlight.remove(hash);
+                        }
+                    }
+                }
+            } while (hashes.size() == BACKFILL_BATCH_SIZE);
+            if (generated > 0) {
+                log.info("Backfilled {} image derivatives", generated);
+            }
+        });
+    }
+
+    private int generate(String hash) {
+        List<ImageVariant> missing = Arrays.stream(ImageVariant.values())
+                .filter(v -> imageStore.findVariant(hash, v).isEmpty())
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            ImageStore.StoredImage original = imageStore.find(hash).orElse(null);
+            if (original == null) {
+                return 0;
+            }
+            int maxWidth = missing.stream().mapToInt(ImageVariant::getMaxWidth).max().orElseThrow();
+            BufferedImage source = read(original.path(), maxWidth);
+            if (source == null) {
+                // Format without a JDK decoder (e.g. WEBP) — the original is served instead
+                return 0;
+            }
+            for (ImageVariant variant : missing) {
+                imageStore.storeVariant(hash, variant, encodeJpeg(resize(source, variant.getMaxWidth())));
+            }
+            return missing.size();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate derivatives for image {}", hash, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Decodes the image no larger than the variants need. The header's dimensions are checked
+     * first: a file of a few kilobytes can declare a canvas that takes gigabytes once decoded.
+     * Rows and columns are skipped while decoding, keeping at least twice {@code maxWidth} for
+     * {@link #resize} to smooth. Returns null for a format without a JDK decoder (e.g. WEBP).
+     */
+    static BufferedImage read(Path file, int maxWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image of " + width + "x" + height + " pixels is too large to decode");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (2 * maxWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Downscales in successive halving steps with bilinear filtering, which avoids the aliasing
+     * a single large bilinear step produces, and flattens transparency onto white for JPEG.
+     */
+    static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (targetWidth / (double) source.getWidth())));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = step;
+        } while (width > targetWidth || height > targetHeight);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,264 @@
+package com.skmstore.service;
+
+import com.skmstore.exception.BusinessException;
+import com.skmstore.model.ProductImage;
+import com.skmstore.repository.ProductImageRepository;
+import org.hibernate.engine.jdbc.BlobProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store. Images are keyed by the SHA-256 of their bytes, so a URL that
+ * contains the hash can be cached forever. Files live under {@code app.images.dir}; the
+ * {@code product_images} table is the durable copy used to repopulate the disk after a redeploy.
+ */
+@Service
+public class ImageStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final ProductImageRepository productImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final long maxBytes;
+    private final Map<String, StoredImage> index = new ConcurrentHashMap<>();
+
+    public ImageStore(ProductImageRepository productImageRepository,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${app.images.dir}") String imagesDir,
+                      @Value("${app.images.max-bytes}") long maxBytes) {
+        this.productImageRepository = productImageRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.root = Path.of(imagesDir);
+        this.maxBytes = maxBytes;
+    }
+
+    public record StoredImage(String hash, Path path, String contentType, long size) {}
+
+    /**
+     * Streams the image to disk while hashing it, then stores it (if not already present) and
+     * returns its hash. The payload is never held in memory; type and size limits are enforced
+     * as the bytes arrive. Call inside a transaction so the database copy can be streamed too.
+     */
+    public String store(InputStream content) {
+        Path temp = null;
+        try {
+            Files.createDirectories(root);
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+
+            MessageDigest digest = newDigest();
+            String contentType;
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] head = in.readNBytes(12);
+                contentType = detectContentType(head);
+                if (contentType == null) {
+                    throw new BusinessException("Unsupported image type. Upload a JPEG, PNG, WEBP or GIF image");
+                }
+                out.write(head);
+                size = head.length + copyLimited(in, out, maxBytes - head.length);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+
+            if (!productImageRepository.existsById(hash)) {
+                // Flush while the file stream is still open so the driver reads it during the insert
+                try (InputStream in = Files.newInputStream(target)) {
+                    productImageRepository.saveAndFlush(
+                            new ProductImage(hash, contentType, size, BlobProxy.generateProxy(in, size)));
+                }
+            }
+            index.put(hash, new StoredImage(hash, target, contentType, size));
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort; a stray temp file is harmless
+                }
+            }
+        }
+    }
+
+    public Optional<StoredImage> find(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+
+        StoredImage cached = index.get(hash);
+        if (cached != null && Files.exists(cached.path())) {
+            return Optional.of(cached);
+        }
+
+        Path path = pathFor(hash);
+        if (Files.exists(path)) {
+            return Optional.of(index.computeIfAbsent(hash, h -> describe(h, path)));
+        }
+
+        // Disk was wiped (redeploy) — restore from the database copy once; the blob is only
+        // readable inside the transaction that loaded it
+        return transactionTemplate.execute(status -> productImageRepository.findById(hash).map(image -> {
+            try (InputStream in = image.getContent().getBinaryStream()) {
+                writeFile(path, in);
+            } catch (IOException | SQLException e) {
+                throw new IllegalStateException("Failed to restore image " + hash, e);
+            }
+            StoredImage stored = new StoredImage(hash, path, image.getContentType(), image.getSizeBytes());
+            index.put(hash, stored);
+            return stored;
+        }));
+    }
+
+    /**
+     * Looks up a resized derivative. Derivatives live on local disk only: they can always be
+     * regenerated from the original.
+     */
+    public Optional<StoredImage> findVariant(String hash, ImageVariant variant) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        String key = variantKey(hash, variant);
+        StoredImage cached = index.get(key);
+        if (cached != null && Files.exists(cached.path())) {
+            return Optional.of(cached);
+        }
+        Path path = pathFor(key);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(index.computeIfAbsent(key, k -> describe(k, path)));
+    }
+
+    public void storeVariant(String hash, ImageVariant variant, byte[] jpeg) {
+        String key = variantKey(hash, variant);
+        Path path = pathFor(key);
+        writeFile(path, jpeg);
+        index.put(key, new StoredImage(key, path, "image/jpeg", jpeg.length));
+    }
+
+    public static String urlFor(Long productId, String hash) {
+        return hash == null ? null : "/api/products/" + productId + "/image/" + hash;
+    }
+
+    public static String urlFor(Long productId, String hash, ImageVariant variant) {
+        return hash == null ? null : urlFor(productId, hash) + "?size=" + variant.key();
+    }
+
+    static String detectContentType(byte[] head) {
+        if (head == null) {
+            return null;
+        }
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (head.length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (head.length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (head.length >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private StoredImage describe(String hash, Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            String contentType = detectContentType(in.readNBytes(12));
+            return new StoredImage(hash, path, contentType != null ? contentType : "application/octet-stream",
+                    Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image " + hash, e);
+        }
+    }
+
+    private void writeFile(Path target, byte[] bytes) {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write image " + target.getFileName(), e);
+        }
+    }
+
+    private void writeFile(Path target, InputStream in) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private long copyLimited(InputStream in, OutputStream out, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                throw new BusinessException("Image is too large. Maximum size is " + (maxBytes / (1024 * 1024)) + " MB");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String variantKey(String hash, ImageVariant variant) {
+        return hash + "-" + variant.key();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.skmstore.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Resized derivatives generated for every product image. Widths are upper bounds;
+ * images smaller than a variant are re-encoded at their original size.
+ */
+public enum ImageVariant {
+    THUMB(160),
+    CARD(480),
+    DETAIL(1024);
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<ImageVariant> fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(v -> v.key().equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
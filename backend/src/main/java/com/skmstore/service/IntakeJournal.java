@@ -0,0 +1,133 @@
+package com.skmstore.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal in a memory-mapped file; one segment of a {@link SegmentedIntakeJournal}. Each record is
+ * {@code [int length][int crc32][byte type][payload]}; a zero length marks the end, and a record
+ * whose checksum does not match (a write torn by a crash) ends the replay. An append is in the
+ * page cache once it returns, so it survives a process crash, though not a power loss.
+ */
+final class IntakeJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private final Path file;
+
+    /**
+     * An existing file larger than {@code capacityBytes} keeps its size, so none of its records is cut off.
+     */
+    IntakeJournal(Path file, int capacityBytes) {
+        this.file = file;
+        try {
+            Files.createDirectories(file.getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacityBytes, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order intake journal " + file, e);
+        }
+    }
+
+    /**
+     * Reads every intact record from the start and leaves the write position after the last one.
+     */
+    synchronized void replay(BiConsumer<Byte, byte[]> consumer) {
+        buffer.position(0);
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            byte type = buffer.get();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum(type, payload) != crc) {
+                buffer.position(start);
+                break;
+            }
+            consumer.accept(type, payload);
+        }
+    }
+
+    /**
+     * Returns false, writing nothing, when the record does not fit in the remaining space.
+     */
+    synchronized boolean append(byte type, byte[] payload) {
+        if (buffer.remaining() < recordBytes(payload.length)) {
+            return false;
+        }
+        int start = buffer.position();
+        // Terminate after this record first, so a reader never runs into stale bytes
+        buffer.putInt(start + HEADER_BYTES + payload.length, 0);
+        buffer.position(start + Integer.BYTES);
+        buffer.putInt(checksum(type, payload));
+        buffer.put(type);
+        buffer.put(payload);
+        // The length goes in last: until it is set the record does not exist
+        buffer.putInt(start, payload.length);
+        return true;
+    }
+
+    /**
+     * Discards every record. Only safe when none of them is still needed.
+     */
+    synchronized void reset() {
+        buffer.putInt(0, 0);
+        buffer.position(0);
+    }
+
+    synchronized int usedBytes() {
+        return buffer.position();
+    }
+
+    /**
+     * Closes the segment and removes its file.
+     */
+    synchronized void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete order intake journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Space a record with this payload takes, including the end marker after it.
+     */
+    static int recordBytes(int payloadLength) {
+        return HEADER_BYTES + payloadLength + Integer.BYTES;
+    }
+
+    @Override
+    public synchronized void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,212 @@
+package com.skmstore.service;
+
+import com.skmstore.model.Quantity;
+import com.skmstore.repository.OrderBatchRepository;
+import com.skmstore.repository.ProductRepository;
+import com.skmstore.repository.StockReconciliationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes stock for orders. Normally a guarded UPDATE per product takes it in the database.
+ * In flash-sale mode ({@code app.inventory.flash-sale.enabled}) stock is taken from lock-free
+ * in-memory counters instead, the order items are written unreconciled, and a background task
+ * subtracts them from {@code products.stock_kg} in batches. On startup the counters are rebuilt
+ * from the stored stock minus whatever was sold but not yet reconciled. The counters live in
+ * this process, so flash-sale mode assumes a single application instance.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+    private static final int RECONCILE_BATCH = 5000;
+
+    private final OrderBatchRepository orderBatchRepository;
+    private final ProductRepository productRepository;
+    private final StockReconciliationRepository reconciliationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean flashSale;
+    private final int stripes;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private volatile boolean countersLoaded;
+
+    public InventoryService(OrderBatchRepository orderBatchRepository,
+                            ProductRepository productRepository,
+                            StockReconciliationRepository reconciliationRepository,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.inventory.flash-sale.enabled:false}") boolean flashSale,
+                            @Value("${app.inventory.flash-sale.stripes:16}") int stripes) {
+        this.orderBatchRepository = orderBatchRepository;
+        this.productRepository = productRepository;
+        this.reconciliationRepository = reconciliationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.flashSale = flashSale;
+        this.stripes = Math.max(stripes, 1);
+    }
+
+    /**
+     * True when stock is taken in memory and order items must be written unreconciled.
+     */
+    public boolean isFlashSale() {
+        return flashSale;
+    }
+
+    /**
+     * Takes every quantity or none. Returns the ids of products that did not have enough;
+     * in database mode the caller must then roll back the stock already taken.
+     */
+    public List<Long> take(Map<Long, Quantity> quantities, LocalDateTime now) {
+        if (!flashSale) {
+            return orderBatchRepository.decrementStock(quantities, now);
+        }
+        loadCounters();
+
+        Map<StripedStockCounter, Long> taken = new HashMap<>();
+        for (Map.Entry<Long, Quantity> line : quantities.entrySet()) {
+            StripedStockCounter counter = counters.get(line.getKey());
+            long grams = line.getValue().grams();
+            if (counter == null || !counter.tryTake(grams)) {
+                taken.forEach(StripedStockCounter::add);
+                return List.of(line.getKey());
+            }
+            taken.merge(counter, grams, Long::sum);
+        }
+
+        // The counters are not transactional: give the stock back if the order does not commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        taken.forEach(StripedStockCounter::add);
+                    }
+                }
+            });
+        }
+        return List.of();
+    }
+
+    /**
+     * Gives back stock taken by {@link #take} that no order will use (a released checkout hold).
+     * {@code takenFromCounters} tells where it came from, which may predate the current mode.
+     */
+    public void release(Map<Long, Quantity> quantities, boolean takenFromCounters, LocalDateTime now) {
+        if (!takenFromCounters) {
+            orderBatchRepository.incrementStock(quantities, now);
+        }
+        if (!flashSale || !countersLoaded) {
+            // Counters not built yet: they will be read from the committed rows
+            return;
+        }
+        Runnable apply = () -> quantities.forEach((productId, quantity) ->
+                counters.computeIfAbsent(productId, id -> new StripedStockCounter(stripes, 0))
+                        .add(quantity.grams()));
+        afterCommit(apply);
+    }
+
+    public BigDecimal getAvailableKg(Long productId) {
+        if (flashSale) {
+            StripedStockCounter counter = counters.get(productId);
+            return StripedStockCounter.kilograms(counter != null ? counter.available() : 0);
+        }
+        Quantity stockKg = productRepository.findStockKgById(productId);
+        return stockKg != null ? stockKg.toKilograms() : null;
+    }
+
+    /**
+     * Carries an admin stock edit over to the in-memory counter once the edit commits.
+     */
+    public void stockAdjusted(Long productId, Quantity previous, Quantity current) {
+        if (!flashSale) {
+            return;
+        }
+        long delta = (current != null ? current.grams() : 0) - (previous != null ? previous.grams() : 0);
+        afterCommit(() -> counters.computeIfAbsent(productId, id -> new StripedStockCounter(stripes, 0))
+                .adjust(delta));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (flashSale) {
+            loadCounters();
+        } else {
+            // Fold in anything a previous flash sale left unreconciled
+            reconcile(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.flash-sale.reconcile-interval-ms:2000}")
+    public void reconcilePeriodically() {
+        if (flashSale) {
+            reconcile(false);
+        }
+    }
+
+    private void loadCounters() {
+        if (countersLoaded) {
+            return;
+        }
+        synchronized (counters) {
+            if (!countersLoaded) {
+                reconciliationRepository.findAvailableStock().forEach((productId, availableKg) ->
+                        counters.put(productId, new StripedStockCounter(stripes,
+                                StripedStockCounter.gramsFloor(availableKg))));
+                countersLoaded = true;
+                log.info("Flash-sale stock counters loaded for {} products", counters.size());
+            }
+        }
+    }
+
+    private void reconcile(boolean drain) {
+        int reconciled = 0;
+        List<StockReconciliationRepository.UnreconciledItem> batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<StockReconciliationRepository.UnreconciledItem> items =
+                        reconciliationRepository.findUnreconciledItems(RECONCILE_BATCH);
+                if (!items.isEmpty()) {
+                    reconciliationRepository.reconcile(items, LocalDateTime.now());
+                    eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+                }
+                return items;
+            });
+            reconciled += batch.size();
+        } while (drain && batch.size() == RECONCILE_BATCH);
+        if (reconciled > 0) {
+            log.debug("Reconciled {} order items into product stock", reconciled);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.skmstore.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.repository.ExportRepository;
+import com.skmstore.repository.ExportRepository.ExportedUser;
+import com.skmstore.repository.OrderReadRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Writes the long admin lists as an {@code ApiResponse} envelope whose {@code data} array is filled
+ * element by element from a database cursor. The JSON is the same as the buffered response, but
+ * the first bytes leave before the last row is read and memory stays flat whatever the row count.
+ */
+@Service
+public class JsonListService {
+
+    private final OrderReadRepository orderReadRepository;
+    private final ExportRepository exportRepository;
+    private final ProductService productService;
+    private final TransactionTemplate readOnlyTransaction;
+    // The generator's own buffer decides when bytes go out; flushing per element would send tiny chunks
+    private final ObjectWriter writer;
+
+    public JsonListService(OrderReadRepository orderReadRepository,
+                           ExportRepository exportRepository,
+                           ProductService productService,
+                           TransactionTemplate transactionTemplate,
+                           ObjectMapper objectMapper) {
+        this.orderReadRepository = orderReadRepository;
+        this.exportRepository = exportRepository;
+        this.productService = productService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Orders placed on {@code date}, optionally of one status, newest first.
+     */
+    public void writeOrdersPlacedOn(LocalDate date, OrderStatus status, String message, OutputStream out)
+            throws IOException {
+        writeList(message, out, json -> orderReadRepository.forEachPlacedBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), status, order -> writeValue(json, order)));
+    }
+
+    public void writeUsers(String message, OutputStream out) throws IOException {
+        writeList(message, out, json -> exportRepository.forEachUser(user -> writeUser(json, user)));
+    }
+
+    public void writeProducts(String message, OutputStream out) throws IOException {
+        writeList(message, out, json -> productService.forEachProduct(product -> writeValue(json, product)));
+    }
+
+    private void writeList(String message, OutputStream out, Consumer<JsonGenerator> elements) throws IOException {
+        try (JsonGenerator json = writer.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeStringField("message", message);
+            json.writeArrayFieldStart("data");
+            // The cursor only streams inside a transaction (PostgreSQL fetches everything otherwise)
+            readOnlyTransaction.executeWithoutResult(status -> elements.accept(json));
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void writeValue(JsonGenerator json, Object value) {
+        try {
+            writer.writeValue(json, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeUser(JsonGenerator json, ExportedUser user) {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("id", user.id());
+            json.writeStringField("name", user.name());
+            json.writeStringField("phone", user.phone() != null ? user.phone() : "");
+            json.writeStringField("email", user.email() != null ? user.email() : "");
+            json.writeStringField("role", user.role());
+            json.writeBooleanField("active", user.active());
+            json.writeStringField("createdAt", user.createdAt() != null ? user.createdAt().toString() : null);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.skmstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.dto.response.OrderTicketResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Season-opening intake mode ({@code app.orders.intake.enabled}). An order request is appended
+ * to a segmented memory-mapped journal and acknowledged with a ticket straight away, without touching the
+ * database. A fixed number of virtual-thread workers then take the queued orders one at a time,
+ * so no more than that many order transactions ever compete for connections. Requests that are
+ * sure to fail (a malformed Idempotency-Key, the season closed) are refused before journalling. Pending tickets
+ * are replayed from the journal on restart. Each ticket places its order under an idempotency
+ * key, so a ticket replayed after its order committed returns that order instead of a second.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private static final byte ACCEPTED = 1;
+    private static final byte COMPLETED = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    public enum TicketStatus { QUEUED, PLACED, FAILED }
+
+    private record Accepted(String ticketId, Long userId, String idempotencyKey, PlaceOrderRequest request) {}
+
+    private record Completed(String ticketId, TicketStatus status, Long orderId, String message) {}
+
+    private static final class Ticket {
+        final String id;
+        final Long userId;
+        final String idempotencyKey;
+        final PlaceOrderRequest request;
+        // Journal segment holding the ticket's accepted record
+        final long segment;
+        volatile TicketStatus status = TicketStatus.QUEUED;
+        volatile Long orderId;
+        volatile String message;
+        volatile Instant completedAt;
+
+        Ticket(String id, Long userId, String idempotencyKey, PlaceOrderRequest request, long segment) {
+            this.id = id;
+            this.userId = userId;
+            this.idempotencyKey = idempotencyKey;
+            this.request = request;
+            this.segment = segment;
+        }
+    }
+
+    private final OrderService orderService;
+    private final SettingsService settingsService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path journalFile;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final int workers;
+    private final Duration ticketRetention;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final BlockingQueue<Ticket> queue = new LinkedBlockingQueue<>();
+    private final Object journalLock = new Object();
+    private volatile SegmentedIntakeJournal journal;
+    // Kept in memory so submit never reads the database; refreshed when the season is toggled
+    private volatile boolean seasonActive;
+    private ExecutorService workerPool;
+
+    public OrderIntakeService(OrderService orderService,
+                              SettingsService settingsService,
+                              ObjectMapper objectMapper,
+                              @Value("${app.orders.intake.enabled:false}") boolean enabled,
+                              @Value("${app.orders.intake.journal}") String journalFile,
+                              @Value("${app.orders.intake.journal-size-mb:64}") int journalSizeMb,
+                              @Value("${app.orders.intake.journal-segment-mb:8}") int segmentSizeMb,
+                              @Value("${app.orders.intake.workers:8}") int workers,
+                              @Value("${app.orders.intake.ticket-retention-minutes:60}") long ticketRetentionMinutes) {
+        this.orderService = orderService;
+        this.settingsService = settingsService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.journalFile = Path.of(journalFile);
+        this.segmentBytes = Math.min(segmentSizeMb, journalSizeMb) * 1024 * 1024;
+        this.maxSegments = Math.max(journalSizeMb / Math.max(segmentSizeMb, 1), 1);
+        this.workers = Math.max(workers, 1);
+        this.ticketRetention = Duration.ofMinutes(ticketRetentionMinutes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Journals the request and returns its ticket; the order is placed later by a worker.
+     */
+    public OrderTicketResponse submit(Long userId, PlaceOrderRequest request, String idempotencyKey) {
+        if (journal == null) {
+            throw new BusinessException("Order intake is starting up, please retry in a moment");
+        }
+        // The same checks placeOrder makes first; a ticket for them would only ever fail
+        OrderService.resolveIdempotencyKey(userId, idempotencyKey, request);
+        if (!seasonActive) {
+            throw new BusinessException("Ordering is disabled — mango season has not started yet");
+        }
+        String ticketId = UUID.randomUUID().toString();
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : "ticket:" + ticketId;
+        byte[] record = serialize(new Accepted(ticketId, userId, key, request));
+        if (!journal.fits(record)) {
+            throw new BusinessException("Order request is too large");
+        }
+        Ticket ticket;
+        synchronized (journalLock) {
+            long segment = journal.appendPending(ACCEPTED, record);
+            if (segment < 0) {
+                throw new BusinessException("We are receiving a lot of orders, please retry in a moment");
+            }
+            ticket = new Ticket(ticketId, userId, key, request, segment);
+            tickets.put(ticketId, ticket);
+        }
+        queue.add(ticket);
+        return toResponse(ticket);
+    }
+
+    public OrderTicketResponse getTicket(Long userId, String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Ticket not found");
+        }
+        return toResponse(ticket);
+    }
+
+    /**
+     * Opens the journal, re-queues every ticket it holds without a completion, and starts the workers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        seasonActive = settingsService.isSeasonActive();
+        SegmentedIntakeJournal opened = new SegmentedIntakeJournal(journalFile, segmentBytes, maxSegments);
+        List<Ticket> pending = new ArrayList<>();
+        opened.replay((segment, type, payload) -> {
+            try {
+                if (type == ACCEPTED) {
+                    Accepted accepted = objectMapper.readValue(payload, Accepted.class);
+                    Ticket ticket = new Ticket(accepted.ticketId(), accepted.userId(), accepted.idempotencyKey(),
+                            accepted.request(), segment);
+                    tickets.put(ticket.id, ticket);
+                    pending.add(ticket);
+                } else if (type == COMPLETED) {
+                    Completed completed = objectMapper.readValue(payload, Completed.class);
+                    Ticket ticket = tickets.get(completed.ticketId());
+                    if (ticket != null) {
+                        markCompleted(ticket, completed.status(), completed.orderId(), completed.message());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt order intake journal record", e);
+            }
+        });
+        pending.removeIf(ticket -> ticket.status != TicketStatus.QUEUED);
+        synchronized (journalLock) {
+            pending.forEach(ticket -> opened.markPending(ticket.segment));
+            // Segments whose tickets all completed before the restart are not needed any more
+            opened.reclaim();
+            journal = opened;
+        }
+        queue.addAll(pending);
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} queued orders from the intake journal", pending.size());
+        }
+
+        workerPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-intake-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drain);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeasonChanged(SeasonChangedEvent event) {
+        seasonActive = event.active();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeCompletedTickets() {
+        Instant cutoff = Instant.now().minus(ticketRetention);
+        tickets.values().removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(cutoff));
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void process(Ticket ticket) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                OrderResponse order = orderService.placeOrder(ticket.userId, ticket.request, ticket.idempotencyKey);
+                complete(ticket, TicketStatus.PLACED, order.getId(), "Order placed successfully");
+                return;
+            } catch (BusinessException | ResourceNotFoundException e) {
+                complete(ticket, TicketStatus.FAILED, null, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                // Likely transient (connection or lock timeout); the idempotency key makes a retry safe
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.error("Queued order {} failed after {} attempts", ticket.id, attempt, e);
+                    complete(ticket, TicketStatus.FAILED, null, "Order could not be placed, please try again");
+                    return;
+                }
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void complete(Ticket ticket, TicketStatus status, Long orderId, String message) {
+        byte[] record = serialize(new Completed(ticket.id, status, orderId, message));
+        synchronized (journalLock) {
+            markCompleted(ticket, status, orderId, message);
+            // Drops the ticket's segment once every ticket in it has completed
+            journal.appendDone(ticket.segment, COMPLETED, record);
+        }
+    }
+
+    private static void markCompleted(Ticket ticket, TicketStatus status, Long orderId, String message) {
+        ticket.orderId = orderId;
+        ticket.message = message;
+        ticket.completedAt = Instant.now();
+        ticket.status = status;
+    }
+
+    private byte[] serialize(Object record) {
+        try {
+            return objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize order intake record", e);
+        }
+    }
+
+    private static OrderTicketResponse toResponse(Ticket ticket) {
+        return new OrderTicketResponse(ticket.id, ticket.status.name(), ticket.orderId, ticket.message);
+    }
+}
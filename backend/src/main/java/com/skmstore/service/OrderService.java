@@ -1,47 +1,148 @@
 package com.skmstore.service;
 
+import com.skmstore.dto.request.OrderPaymentRequest;
 import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.request.PreOrderRequest;
+import com.skmstore.dto.request.StockHoldRequest;
+import com.skmstore.dto.response.OrderPageResponse;
 import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.dto.response.PreOrderResponse;
+import com.skmstore.dto.response.StockHoldResponse;
 import com.skmstore.exception.BusinessException;
 import com.skmstore.exception.ResourceNotFoundException;
 import com.skmstore.model.*;
 import com.skmstore.repository.AddressRepository;
+import com.skmstore.repository.IdempotencyKeyRepository;
+import com.skmstore.repository.OrderBatchRepository;
+import com.skmstore.repository.OrderPageRepository;
+import com.skmstore.repository.OrderReadRepository;
 import com.skmstore.repository.OrderRepository;
+import com.skmstore.repository.PreOrderRepository;
 import com.skmstore.repository.ProductRepository;
 import com.skmstore.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int RECENT_ORDER_KEYS = 10_000;
+    private static final int MAX_ORDER_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderPageRepository orderPageRepository;
+    private final OrderReadRepository orderReadRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
     private final SettingsService settingsService;
+    private final InventoryService inventoryService;
+    private final StockHoldService stockHoldService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final PreOrderRepository preOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long idempotencyRetentionDays;
+
+    private record RecentOrder(Long userId, Long orderId) {}
+
+    // Keys of recently placed orders; most retries arrive within seconds and skip the key lookup
+    private final Map<String, RecentOrder> recentOrderKeys = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RecentOrder> eldest) {
+                    return size() > RECENT_ORDER_KEYS;
+                }
+            });
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(OrderRepository orderRepository,
+                        OrderBatchRepository orderBatchRepository,
+                        OrderPageRepository orderPageRepository,
+                        OrderReadRepository orderReadRepository,
                         UserRepository userRepository,
                         ProductRepository productRepository,
                         AddressRepository addressRepository,
-                        SettingsService settingsService) {
+                        SettingsService settingsService,
+                        InventoryService inventoryService,
+                        StockHoldService stockHoldService,
+                        IdempotencyKeyRepository idempotencyKeyRepository,
+                        PreOrderRepository preOrderRepository,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${app.idempotency.retention-days:7}") long idempotencyRetentionDays,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.orderPageRepository = orderPageRepository;
+        this.orderReadRepository = orderReadRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.addressRepository = addressRepository;
         this.settingsService = settingsService;
+        this.inventoryService = inventoryService;
+        this.stockHoldService = stockHoldService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.preOrderRepository = preOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.idempotencyRetentionDays = idempotencyRetentionDays;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
-    public OrderResponse placeOrder(Long userId, PlaceOrderRequest request) {
+    /**
+     * Places the order once per idempotency key: the {@code Idempotency-Key} header if sent,
+     * else the payment id. A retry with a used key gets the original order back without
+     * running the transaction again; concurrent retries are settled by the key's unique index.
+     */
+    public OrderResponse placeOrder(Long userId, PlaceOrderRequest request, String idempotencyKey) {
+        String key = resolveIdempotencyKey(userId, idempotencyKey, request);
+        if (key == null) {
+            return transactionTemplate.execute(status -> createOrder(userId, request, null));
+        }
+        Optional<OrderResponse> replay = findReplay(userId, key);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> createOrder(userId, request, key));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to a concurrent request with the same key or payment id
+            return findReplay(userId, key)
+                    .or(() -> Optional.ofNullable(request.getRazorpayPaymentId())
+                            .flatMap(paymentId -> orderRepository.findIdByPaymentIdAndUserId(paymentId, userId))
+                            .map(this::getOrder))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private OrderResponse createOrder(Long userId, PlaceOrderRequest request, String idempotencyKey) {
+        // Claimed first, so a concurrent duplicate blocks here before it takes any stock
+        IdempotencyKey claimedKey = idempotencyKey != null
+                ? idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(idempotencyKey, userId))
+                : null;
+
         if (!settingsService.isSeasonActive()) {
             throw new BusinessException("Ordering is disabled — mango season has not started yet");
         }
@@ -60,38 +161,48 @@ public class OrderService {
         order.setUser(user);
         order.setAddress(address);
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        for (PlaceOrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            Product product = productRepository.findById(itemReq.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + itemReq.getProductId()));
-
-            if (!product.getActive()) {
-                throw new BusinessException("Product is not available: " + product.getName());
-            }
-
-            if (itemReq.getQuantityKg().compareTo(product.getMinOrderKg()) < 0) {
-                throw new BusinessException("Minimum order for " + product.getName()
-                        + " is " + product.getMinOrderKg() + " KG");
-            }
-
-            if (product.getStockKg().compareTo(itemReq.getQuantityKg()) < 0) {
-                throw new BusinessException("Insufficient stock for " + product.getName()
-                        + ". Available: " + product.getStockKg() + " KG");
-            }
+        Money totalAmount = Money.ZERO;
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Quantity> quantities = mergeQuantities(request.getItems());
+        Map<Long, Product> products = loadProducts(quantities);
+
+        // A hold that covers exactly this order has already taken the stock; otherwise it goes back
+        Map<Long, StockHold> held = request.getHoldId() != null
+                ? stockHoldService.consume(request.getHoldId(), userId)
+                : Map.of();
+        boolean coveredByHold = !held.isEmpty() && held.keySet().equals(quantities.keySet())
+                && quantities.entrySet().stream().allMatch(line ->
+                        held.get(line.getKey()).getQuantityKg().equals(line.getValue()));
+        if (!held.isEmpty() && !coveredByHold) {
+            stockHoldService.release(held.values(), now);
+        }
 
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Quantity> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
             orderItem.setProductName(product.getName());
-            orderItem.setQuantityKg(itemReq.getQuantityKg());
+            orderItem.setQuantityKg(line.getValue());
             orderItem.setPricePerKg(product.getEffectivePrice());
+            orderItem.setStockReconciled(coveredByHold
+                    ? !Boolean.TRUE.equals(held.get(line.getKey()).getFlashSale())
+                    : !inventoryService.isFlashSale());
 
-            order.addItem(orderItem);
-            totalAmount = totalAmount.add(orderItem.getLineTotal());
+            items.add(orderItem);
+            totalAmount = totalAmount.plus(orderItem.getLineTotal());
+        }
 
-            // Deduct stock
-            product.setStockKg(product.getStockKg().subtract(itemReq.getQuantityKg()));
-            productRepository.save(product);
+        if (!coveredByHold) {
+            // Guarded decrements (one batch, or the flash-sale counters): the check and the take
+            // are atomic per product, so stock cannot oversell. Any failure rolls the whole order back.
+            List<Long> insufficient = inventoryService.take(quantities, now);
+            if (!insufficient.isEmpty()) {
+                Product product = products.get(insufficient.get(0));
+                throw new BusinessException("Insufficient stock for " + product.getName()
+                        + ". Available: " + inventoryService.getAvailableKg(product.getId()) + " KG");
+            }
         }
 
         order.setTotalAmount(totalAmount);
@@ -104,57 +215,232 @@ public class OrderService {
             order.setRazorpayOrderId(request.getRazorpayOrderId());
         }
 
+        // The order row is inserted for its id, then its items go in as one batch
         order = orderRepository.save(order);
-        return toResponse(order);
+        orderBatchRepository.insertItems(order.getId(), items);
+        if (claimedKey != null) {
+            claimedKey.setOrderId(order.getId());
+            Long orderId = order.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentOrderKeys.put(idempotencyKey, new RecentOrder(userId, orderId));
+                }
+            });
+        }
+
+        // Stock changed — refresh the public catalog once this transaction commits
+        eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+        return toResponse(order, items);
     }
 
-    public List<OrderResponse> getUserOrders(Long userId) {
-        return orderRepository.findByUserIdOrderByOrderDateDesc(userId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    private Optional<OrderResponse> findReplay(Long userId, String key) {
+        RecentOrder recent = recentOrderKeys.get(key);
+        if (recent == null) {
+            IdempotencyKey stored = idempotencyKeyRepository.findByIdempotencyKey(key).orElse(null);
+            if (stored == null || stored.getOrderId() == null) {
+                return Optional.empty();
+            }
+            recent = new RecentOrder(stored.getUserId(), stored.getOrderId());
+            recentOrderKeys.put(key, recent);
+        }
+        if (!recent.userId().equals(userId)) {
+            throw new BusinessException("This payment has already been used for another order");
+        }
+        return Optional.of(getOrder(recent.orderId()));
     }
 
-    public List<OrderResponse> getTodaysOrders() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        return orderRepository.findTodaysOrders(startOfDay, endOfDay).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    /**
+     * The stored key is namespaced by user or payment, so it is the composed key that has to
+     * fit the column, not just the client's part of it.
+     */
+    static String resolveIdempotencyKey(Long userId, String header, PlaceOrderRequest request) {
+        if (header != null && !header.isBlank()) {
+            String prefix = "user:" + userId + ":";
+            int maxLength = Math.min(100, IdempotencyKey.KEY_MAX_LENGTH - prefix.length());
+            if (header.trim().length() > maxLength) {
+                throw new BusinessException("Idempotency-Key must be at most " + maxLength + " characters");
+            }
+            return prefix + header.trim();
+        }
+        if (request.getRazorpayPaymentId() == null) {
+            return null;
+        }
+        String key = "payment:" + request.getRazorpayPaymentId();
+        if (key.length() > IdempotencyKey.KEY_MAX_LENGTH) {
+            throw new BusinessException("Invalid payment id");
+        }
+        return key;
     }
 
-    public List<OrderResponse> getOrdersByDate(String dateStr) {
-        LocalDate date = LocalDate.parse(dateStr);
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        return orderRepository.findTodaysOrders(startOfDay, endOfDay).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeIdempotencyKeys() {
+        idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(idempotencyRetentionDays));
     }
 
-    public List<OrderResponse> getTodaysOrdersByStatus(OrderStatus status) {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = LocalDate.now().atTime(LocalTime.MAX);
-        return orderRepository.findTodaysOrdersByStatus(startOfDay, endOfDay, status).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    /**
+     * Takes the stock for a checkout for a limited time; see {@link StockHoldService}.
+     */
+    @Transactional
+    public StockHoldResponse holdStock(Long userId, StockHoldRequest request) {
+        if (!settingsService.isSeasonActive()) {
+            throw new BusinessException("Ordering is disabled — mango season has not started yet");
+        }
+        Map<Long, Quantity> quantities = mergeQuantities(request.getItems());
+        return stockHoldService.hold(userId, quantities, loadProducts(quantities));
     }
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAllByOrderByOrderDateDesc().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public void releaseStockHold(Long userId, String holdId) {
+        stockHoldService.cancel(userId, holdId);
+    }
+
+    /**
+     * Books an order while the season is closed. No stock is taken until the season opens and
+     * {@link PreOrderAllocationService} allocates the backlog.
+     */
+    @Transactional
+    public PreOrderResponse placePreOrder(Long userId, PreOrderRequest request) {
+        if (settingsService.isSeasonActive()) {
+            throw new BusinessException("Mango season is open — please place a regular order");
+        }
+        Address address = addressRepository.findById(request.getAddressId())
+                .orElseThrow(() -> new ResourceNotFoundException("Address not found"));
+        if (!address.getUser().getId().equals(userId)) {
+            throw new BusinessException("Address does not belong to the user");
+        }
+
+        Map<Long, Quantity> quantities = mergeQuantities(request.getItems());
+        Map<Long, Product> products = loadProducts(quantities);
+        PreOrder preOrder = new PreOrder();
+        preOrder.setUserId(userId);
+        preOrder.setAddressId(address.getId());
+        quantities.forEach((productId, quantity) ->
+                preOrder.addItem(new PreOrderItem(productId, products.get(productId).getName(), quantity)));
+        return toPreOrderResponse(preOrderRepository.save(preOrder));
     }
 
-    public List<OrderResponse> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatusOrderByOrderDateDesc(status).stream()
-                .map(this::toResponse)
+    public List<PreOrderResponse> getUserPreOrders(Long userId) {
+        return preOrderRepository.findByUserIdWithItems(userId).stream()
+                .map(this::toPreOrderResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional
+    public void cancelPreOrder(Long userId, Long preOrderId) {
+        if (preOrderRepository.updateQueuedStatus(preOrderId, userId, PreOrderStatus.CANCELLED,
+                LocalDateTime.now()) == 0) {
+            throw new BusinessException("Only a queued pre-order can be cancelled");
+        }
+    }
+
+    public Map<PreOrderStatus, Long> getPreOrderSummary() {
+        Map<PreOrderStatus, Long> summary = new EnumMap<>(PreOrderStatus.class);
+        for (PreOrderStatus status : PreOrderStatus.values()) {
+            summary.put(status, preOrderRepository.countByStatus(status));
+        }
+        return summary;
+    }
+
+    @Transactional
+    public void updatePreOrderPriority(Long preOrderId, int priority) {
+        if (preOrderRepository.updateQueuedPriority(preOrderId, priority, LocalDateTime.now()) == 0) {
+            throw new BusinessException("Only a queued pre-order can be reprioritised");
+        }
+    }
+
+    /**
+     * One line per product, in product-id order so concurrent orders lock rows in the same
+     * sequence and cannot deadlock. Weights are converted to grams here, once per line; from
+     * then on they are only added and compared as longs.
+     */
+    private Map<Long, Quantity> mergeQuantities(List<PlaceOrderRequest.OrderItemRequest> items) {
+        Map<Long, Quantity> quantities = new TreeMap<>();
+        for (PlaceOrderRequest.OrderItemRequest itemReq : items) {
+            quantities.merge(itemReq.getProductId(), Quantity.ofKilograms(itemReq.getQuantityKg()), Quantity::plus);
+        }
+        return quantities;
+    }
+
+    /**
+     * Loads all products in one query (the statement count stays the same however many lines
+     * the order has) and checks each is orderable in the requested quantity.
+     */
+    private Map<Long, Product> loadProducts(Map<Long, Quantity> quantities) {
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Map.Entry<Long, Quantity> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found: " + line.getKey());
+            }
+
+            if (!product.getActive()) {
+                throw new BusinessException("Product is not available: " + product.getName());
+            }
+
+            if (line.getValue().isLessThan(product.getMinOrderKg())) {
+                throw new BusinessException("Minimum order for " + product.getName()
+                        + " is " + product.getMinOrderKg() + " KG");
+            }
+        }
+        return products;
+    }
+
+    public List<OrderResponse> getUserOrders(Long userId) {
+        return orderReadRepository.findByUserId(userId);
+    }
+
+    /**
+     * One page of the admin order listing, newest first. The page's ids are found first, with
+     * a keyset seek that reads no order graphs; only those orders are then read with their
+     * customer, address and items.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrderPage(OrderStatus status, LocalDate from, LocalDate to, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_ORDER_PAGE_SIZE);
+        // One extra key tells whether another page follows
+        List<OrderPageRepository.OrderKey> keys = orderPageRepository.findKeys(status,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                decodeCursor(cursor), pageSize + 1);
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+        if (keys.isEmpty()) {
+            return new OrderPageResponse(List.of(), null);
+        }
+
+        List<OrderResponse> orders = orderReadRepository.findByIds(
+                keys.stream().map(OrderPageRepository.OrderKey::id).toList());
+        return new OrderPageResponse(orders, hasMore ? encodeCursor(keys.get(keys.size() - 1)) : null);
+    }
+
+    private String encodeCursor(OrderPageRepository.OrderKey key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key.orderDate() + "|" + key.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OrderPageRepository.OrderKey decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new OrderPageRepository.OrderKey(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid page cursor");
+        }
+    }
+
     @Transactional
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        if (order.getStatus() == OrderStatus.PENDING && status != OrderStatus.CANCELLED) {
+            throw new BusinessException("Order is awaiting payment");
+        }
         order.setStatus(status);
         order = orderRepository.save(order);
         return toResponse(order);
@@ -173,16 +459,59 @@ public class OrderService {
         return toResponse(order);
     }
 
+    /**
+     * Confirms an order that was placed unpaid, i.e. an allocated pre-order, once the customer
+     * has paid for it. Until then it stays PENDING and is not shipped.
+     */
+    @Transactional
+    public OrderResponse payForOrder(Long userId, Long orderId, OrderPaymentRequest request) {
+        Order order = orderRepository.findById(orderId)
+                .filter(found -> found.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        if (order.getStatus() != OrderStatus.PENDING || order.getPaymentStatus() != PaymentStatus.PENDING) {
+            throw new BusinessException("This order has no payment due");
+        }
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setPaymentStatus(PaymentStatus.PAID);
+        if (request.getRazorpayPaymentId() != null) {
+            order.setPaymentId(request.getRazorpayPaymentId());
+            order.setRazorpayOrderId(request.getRazorpayOrderId());
+        }
+        try {
+            return toResponse(orderRepository.saveAndFlush(order));
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException("This payment has already been used for another order");
+        }
+    }
+
     public OrderResponse getOrder(Long orderId) {
-        Order order = orderRepository.findByIdWithDetails(orderId)
+        return orderReadRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        return toResponse(order);
     }
 
-    private OrderResponse toResponse(Order order) {
+    private PreOrderResponse toPreOrderResponse(PreOrder preOrder) {
+        PreOrderResponse response = new PreOrderResponse();
+        response.setId(preOrder.getId());
+        response.setStatus(preOrder.getStatus().name());
+        response.setPriority(preOrder.getPriority());
+        response.setOrderId(preOrder.getOrderId());
+        response.setNote(preOrder.getNote());
+        response.setCreatedAt(preOrder.getCreatedAt());
+        response.setItems(preOrder.getItems().stream()
+                .map(item -> new PreOrderResponse.ItemInfo(item.getProductId(), item.getProductName(),
+                        item.getQuantityKg().toKilograms()))
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    OrderResponse toResponse(Order order) {
+        return toResponse(order, order.getItems());
+    }
+
+    private OrderResponse toResponse(Order order, List<OrderItem> items) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
-        response.setTotalAmount(order.getTotalAmount());
+        response.setTotalAmount(order.getTotalAmount().toBigDecimal());
         response.setStatus(order.getStatus().name());
         response.setPaymentStatus(order.getPaymentStatus().name());
         response.setPaymentId(order.getPaymentId());
@@ -211,13 +540,13 @@ public class OrderService {
         response.setCustomer(customerInfo);
 
         // Items
-        response.setItems(order.getItems().stream().map(item -> {
+        response.setItems(items.stream().map(item -> {
             OrderResponse.OrderItemInfo itemInfo = new OrderResponse.OrderItemInfo();
             itemInfo.setProductId(item.getProduct() != null ? item.getProduct().getId() : null);
             itemInfo.setProductName(item.getProductName());
-            itemInfo.setQuantityKg(item.getQuantityKg());
-            itemInfo.setPricePerKg(item.getPricePerKg());
-            itemInfo.setLineTotal(item.getLineTotal());
+            itemInfo.setQuantityKg(item.getQuantityKg().toKilograms());
+            itemInfo.setPricePerKg(item.getPricePerKg().toBigDecimal());
+            itemInfo.setLineTotal(item.getLineTotal().toBigDecimal());
             return itemInfo;
         }).collect(Collectors.toList()));
 
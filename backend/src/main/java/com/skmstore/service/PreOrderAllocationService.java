@@ -0,0 +1,265 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.PreOrderAllocationResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.model.Money;
+import com.skmstore.model.OrderItem;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.model.PaymentStatus;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import com.skmstore.repository.OrderBatchRepository;
+import com.skmstore.repository.PreOrderBatchRepository;
+import com.skmstore.repository.PreOrderBatchRepository.QueuedLine;
+import com.skmstore.repository.PreOrderBatchRepository.QueuedPreOrder;
+import com.skmstore.repository.PreOrderBatchRepository.Settlement;
+import com.skmstore.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the off-season pre-order backlog into orders when the season opens. Pre-orders are served
+ * in chunks, highest priority first and then first come, first served. Each one is allocated in
+ * full from an in-memory copy of the available stock or marked UNFULFILLED. A later, smaller
+ * pre-order can still be served after an earlier one did not fit. Each chunk is committed in one
+ * transaction: one stock take for the chunk's totals, then one batch each for orders, order
+ * items and pre-order statuses. If live orders took the stock meanwhile, or a pre-order was
+ * cancelled, the chunk rolls back and is planned again against fresh stock figures; after three
+ * such conflicts it is left queued for the next run. The orders are created unpaid and PENDING
+ * until the customer pays for them.
+ */
+@Service
+public class PreOrderAllocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PreOrderAllocationService.class);
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private record Allocation(QueuedPreOrder preOrder, List<OrderItem> items, Money totalAmount) {}
+
+    private record Plan(List<Allocation> allocations, List<Settlement> unfulfilled, Map<Long, Quantity> taken) {}
+
+    /**
+     * Thrown inside a chunk transaction to roll it back so it can be planned again.
+     */
+    private static final class ChunkConflict extends RuntimeException {
+        ChunkConflict() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final PreOrderBatchRepository preOrderBatchRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("pre-order-allocation").daemon().factory());
+
+    public PreOrderAllocationService(PreOrderBatchRepository preOrderBatchRepository,
+                                     OrderBatchRepository orderBatchRepository,
+                                     ProductRepository productRepository,
+                                     InventoryService inventoryService,
+                                     TransactionTemplate transactionTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.pre-orders.chunk-size:2000}") int chunkSize) {
+        this.preOrderBatchRepository = preOrderBatchRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /**
+     * Allocates the backlog in the background as soon as the season opens.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeasonChanged(SeasonChangedEvent event) {
+        if (event.active()) {
+            runner.execute(() -> {
+                try {
+                    allocate();
+                } catch (BusinessException e) {
+                    log.info("Pre-order allocation skipped: {}", e.getMessage());
+                } catch (RuntimeException e) {
+                    log.error("Pre-order allocation failed", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+    }
+
+    public PreOrderAllocationResponse allocate() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Pre-order allocation is already running");
+        }
+        try {
+            return allocateBacklog();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PreOrderAllocationResponse allocateBacklog() {
+        long start = System.nanoTime();
+        Map<Long, Product> products = productRepository.findAll().stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Quantity> available = loadAvailable(products);
+        int allocated = 0;
+        int unfulfilled = 0;
+        int stillQueued = 0;
+
+        // The backlog is fixed once the season is open (no new pre-orders), so it is read once
+        List<QueuedPreOrder> queue = preOrderBatchRepository.findAllQueued();
+        for (int from = 0; from < queue.size(); from += chunkSize) {
+            List<QueuedPreOrder> chunk = queue.subList(from, Math.min(from + chunkSize, queue.size()));
+            for (int attempt = 1; ; attempt++) {
+                Plan plan = plan(chunk, products, available);
+                try {
+                    commit(plan);
+                    plan.taken().forEach((productId, quantity) -> available.merge(productId, quantity, Quantity::minus));
+                    allocated += plan.allocations().size();
+                    unfulfilled += plan.unfulfilled().size();
+                    break;
+                } catch (ChunkConflict e) {
+                    available.clear();
+                    available.putAll(loadAvailable(products));
+                    if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                        // Live orders keep taking this chunk's stock first; it stays queued for the
+                        // next run, and the chunks after it are still served
+                        stillQueued += chunk.size();
+                        log.warn("Pre-order chunk of {} left queued after {} conflicts with live orders",
+                                chunk.size(), attempt);
+                        break;
+                    }
+                    chunk = preOrderBatchRepository.findQueued(chunk.stream().map(QueuedPreOrder::id).toList());
+                }
+            }
+        }
+
+        if (allocated > 0) {
+            eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Pre-order allocation: {} allocated, {} unfulfilled, {} still queued in {} ms",
+                allocated, unfulfilled, stillQueued, millis);
+        return new PreOrderAllocationResponse(allocated, unfulfilled, stillQueued, millis);
+    }
+
+    /**
+     * Decides each pre-order of the chunk against the stock left after the earlier ones.
+     * Touches only memory; {@code available} itself is updated once the chunk commits.
+     */
+    private Plan plan(List<QueuedPreOrder> chunk, Map<Long, Product> products, Map<Long, Quantity> available) {
+        Map<Long, Quantity> left = new HashMap<>(available);
+        Map<Long, Quantity> taken = new TreeMap<>();
+        List<Allocation> allocations = new ArrayList<>();
+        List<Settlement> unfulfilled = new ArrayList<>();
+        boolean reconciled = !inventoryService.isFlashSale();
+
+        for (QueuedPreOrder preOrder : chunk) {
+            String problem = !preOrder.addressExists() ? "Delivery address was removed" : null;
+            for (QueuedLine line : preOrder.lines()) {
+                if (problem != null) {
+                    break;
+                }
+                Product product = products.get(line.productId());
+                if (product == null || !product.getActive()) {
+                    problem = "Product is no longer available";
+                } else if (left.getOrDefault(line.productId(), Quantity.ZERO).isLessThan(line.quantityKg())) {
+                    problem = "Not enough stock for " + product.getName();
+                }
+            }
+            if (problem != null) {
+                unfulfilled.add(new Settlement(preOrder.id(), null, problem));
+                continue;
+            }
+
+            List<OrderItem> items = new ArrayList<>(preOrder.lines().size());
+            Money totalAmount = Money.ZERO;
+            for (QueuedLine line : preOrder.lines()) {
+                Product product = products.get(line.productId());
+                left.merge(line.productId(), line.quantityKg(), Quantity::minus);
+                taken.merge(line.productId(), line.quantityKg(), Quantity::plus);
+
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setProductName(product.getName());
+                item.setQuantityKg(line.quantityKg());
+                item.setPricePerKg(product.getEffectivePrice());
+                item.setStockReconciled(reconciled);
+                items.add(item);
+                totalAmount = totalAmount.plus(item.getLineTotal());
+            }
+            allocations.add(new Allocation(preOrder, items, totalAmount));
+        }
+        return new Plan(allocations, unfulfilled, taken);
+    }
+
+    private void commit(Plan plan) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!plan.taken().isEmpty() && !inventoryService.take(plan.taken(), now).isEmpty()) {
+                throw new ChunkConflict();
+            }
+
+            List<Settlement> settlements = new ArrayList<>(plan.unfulfilled());
+            if (!plan.allocations().isEmpty()) {
+                // Unpaid, so PENDING: the customer pays for it and that confirms it for shipping
+                List<Long> orderIds = orderBatchRepository.insertOrders(plan.allocations().stream()
+                        .map(allocation -> new OrderBatchRepository.NewOrder(allocation.preOrder().userId(),
+                                allocation.preOrder().addressId(), allocation.totalAmount(),
+                                OrderStatus.PENDING, PaymentStatus.PENDING))
+                        .toList(), now);
+                Map<Long, List<OrderItem>> itemsByOrderId = new LinkedHashMap<>();
+                for (int i = 0; i < orderIds.size(); i++) {
+                    Allocation allocation = plan.allocations().get(i);
+                    itemsByOrderId.put(orderIds.get(i), allocation.items());
+                    settlements.add(new Settlement(allocation.preOrder().id(), orderIds.get(i), null));
+                }
+                orderBatchRepository.insertItems(itemsByOrderId);
+            }
+            if (!preOrderBatchRepository.settle(settlements, now)) {
+                throw new ChunkConflict();
+            }
+        });
+    }
+
+    private Map<Long, Quantity> loadAvailable(Map<Long, Product> products) {
+        Map<Long, Quantity> available = new HashMap<>();
+        for (Long productId : products.keySet()) {
+            BigDecimal kg = inventoryService.getAvailableKg(productId);
+            available.put(productId, kg != null ? Quantity.ofKilograms(kg) : Quantity.ZERO);
+        }
+        return available;
+    }
+}
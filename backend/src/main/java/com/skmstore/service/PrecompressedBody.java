@@ -0,0 +1,131 @@
+package com.skmstore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body encoded once, up front, as plain, gzip and deflate bytes. Requests then only
+ * pick the variant matching their {@code Accept-Encoding} and copy it to the socket.
+ * Each variant carries a strong ETag derived from the content hash.
+ */
+public final class PrecompressedBody {
+
+    /**
+     * @param etag unquoted entity tag; differs per encoding as each is a distinct representation
+     */
+    public record Variant(String contentEncoding, byte[] bytes, String etag) {}
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] deflate;
+    private final String etag;
+
+    private PrecompressedBody(byte[] identity, byte[] gzip, byte[] deflate) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.deflate = deflate;
+        this.etag = contentHash(identity);
+    }
+
+    public static PrecompressedBody of(byte[] identity) {
+        return new PrecompressedBody(identity,
+                compress(identity, GZIPOutputStream::new),
+                compress(identity, DeflaterOutputStream::new));
+    }
+
+    public static PrecompressedBody json(ObjectMapper objectMapper, Object value) {
+        try {
+            return of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response body", e);
+        }
+    }
+
+    public byte[] getIdentity() {
+        return identity;
+    }
+
+    /**
+     * Picks gzip, then deflate, then the plain bytes, honouring {@code q=0} exclusions. A
+     * {@code *} entry only covers codings the header does not name, so {@code gzip;q=0, *}
+     * never gets gzip. A {@code null} content encoding means the plain bytes were chosen.
+     */
+    public Variant select(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return new Variant(null, identity, etag);
+        }
+        // null until the header names the coding (or "*"): then whether its q is above 0
+        Boolean gzipAccepted = null;
+        Boolean deflateAccepted = null;
+        Boolean anyAccepted = null;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            boolean acceptable = isAcceptable(tokens);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipAccepted = acceptable;
+            } else if (coding.equals("deflate")) {
+                deflateAccepted = acceptable;
+            } else if (coding.equals("*")) {
+                anyAccepted = acceptable;
+            }
+        }
+        boolean wildcard = Boolean.TRUE.equals(anyAccepted);
+        if (gzipAccepted != null ? gzipAccepted : wildcard) {
+            return new Variant("gzip", gzip, etag + "-gzip");
+        }
+        if (deflateAccepted != null ? deflateAccepted : wildcard) {
+            return new Variant("deflate", deflate, etag + "-deflate");
+        }
+        return new Variant(null, identity, etag);
+    }
+
+    private static boolean isAcceptable(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private interface StreamWrapper {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private static byte[] compress(byte[] bytes, StreamWrapper wrapper) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (OutputStream out = wrapper.wrap(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress response body", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
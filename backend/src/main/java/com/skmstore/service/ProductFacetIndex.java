@@ -0,0 +1,202 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ProductResponse;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bitmap index over the snapshot's active products (bit = ordinal in the name-sorted list):
+ * one bitset per attribute (key, value), per price band, and for in-stock. Filters are bitset
+ * ANDs/ORs and facet counts are cardinalities, so a filter call never scans products.
+ */
+final class ProductFacetIndex {
+
+    /**
+     * Price bands on the effective price per kg; the upper bound is exclusive.
+     */
+    enum PriceBand {
+        UNDER_300("under-300", null, new BigDecimal("300")),
+        FROM_300_TO_500("300-500", new BigDecimal("300"), new BigDecimal("500")),
+        FROM_500_TO_700("500-700", new BigDecimal("500"), new BigDecimal("700")),
+        FROM_700("700-plus", new BigDecimal("700"), null);
+
+        private final String key;
+        private final BigDecimal min;
+        private final BigDecimal max;
+
+        PriceBand(String key, BigDecimal min, BigDecimal max) {
+            this.key = key;
+            this.min = min;
+            this.max = max;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Optional<PriceBand> fromKey(String key) {
+            return Arrays.stream(values())
+                    .filter(band -> band.key.equals(key))
+                    .findFirst();
+        }
+
+        boolean contains(BigDecimal price) {
+            return price != null
+                    && (min == null || price.compareTo(min) >= 0)
+                    && (max == null || price.compareTo(max) < 0);
+        }
+    }
+
+    /**
+     * Selected values per facet. Values within a facet are ORed, facets are ANDed.
+     *
+     * @param attributes attribute key to the accepted values
+     * @param priceBands accepted price band keys
+     * @param inStock    only products in stock when true
+     */
+    record Selection(Map<String, Set<String>> attributes, Set<String> priceBands, boolean inStock) {}
+
+    record Result(List<Integer> ordinals,
+                  Map<String, Map<String, Integer>> attributeCounts,
+                  Map<String, Integer> priceBandCounts,
+                  int inStockCount) {}
+
+    private record AttributeRow(Long productId, Map<String, String> attributes) {}
+
+    private final int size;
+    private final List<AttributeRow> attributeRows;
+    private final Map<String, Map<String, BitSet>> attributeBits;
+    private final Map<String, BitSet> priceBandBits;
+    private final BitSet inStockBits;
+
+    private ProductFacetIndex(int size, List<AttributeRow> attributeRows, Map<String, Map<String, BitSet>> attributeBits,
+                              Map<String, BitSet> priceBandBits, BitSet inStockBits) {
+        this.size = size;
+        this.attributeRows = attributeRows;
+        this.attributeBits = attributeBits;
+        this.priceBandBits = priceBandBits;
+        this.inStockBits = inStockBits;
+    }
+
+    /**
+     * Builds the bitsets. Attribute bitsets are taken from {@code previous} when every product's
+     * attributes are unchanged; price and stock bits are always rebuilt as orders move them.
+     */
+    static ProductFacetIndex build(List<ProductResponse> products, ProductFacetIndex previous) {
+        List<AttributeRow> attributeRows = products.stream()
+                .map(p -> new AttributeRow(p.getId(), p.getAttributes() != null ? p.getAttributes() : Map.of()))
+                .toList();
+        Map<String, Map<String, BitSet>> attributeBits;
+        if (previous != null && previous.attributeRows.equals(attributeRows)) {
+            attributeBits = previous.attributeBits;
+        } else {
+            attributeBits = new TreeMap<>();
+            for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+                Map<String, String> attributes = products.get(ordinal).getAttributes();
+                if (attributes == null) {
+                    continue;
+                }
+                for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                    attributeBits.computeIfAbsent(attribute.getKey(), k -> new TreeMap<>())
+                            .computeIfAbsent(attribute.getValue(), v -> new BitSet(products.size()))
+                            .set(ordinal);
+                }
+            }
+        }
+
+        Map<String, BitSet> priceBandBits = new LinkedHashMap<>();
+        for (PriceBand band : PriceBand.values()) {
+            priceBandBits.put(band.key(), new BitSet(products.size()));
+        }
+        BitSet inStockBits = new BitSet(products.size());
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            ProductResponse product = products.get(ordinal);
+            for (PriceBand band : PriceBand.values()) {
+                if (band.contains(product.getEffectivePrice())) {
+                    priceBandBits.get(band.key()).set(ordinal);
+                }
+            }
+            if (product.isInStock()) {
+                inStockBits.set(ordinal);
+            }
+        }
+        return new ProductFacetIndex(products.size(), attributeRows, attributeBits, priceBandBits, inStockBits);
+    }
+
+    /**
+     * Applies the selection and counts every facet value. Each facet is counted against the
+     * other facets' filters only, so picking one origin still shows how many the others have.
+     */
+    Result filter(Selection selection) {
+        Map<String, BitSet> attributeFilters = new LinkedHashMap<>();
+        selection.attributes().forEach((key, values) -> {
+            if (!values.isEmpty()) {
+                Map<String, BitSet> byValue = attributeBits.getOrDefault(key, Map.of());
+                attributeFilters.put(key, union(values.stream().map(byValue::get).toList()));
+            }
+        });
+        BitSet priceFilter = selection.priceBands().isEmpty() ? null
+                : union(selection.priceBands().stream().map(priceBandBits::get).toList());
+        BitSet stockFilter = selection.inStock() ? inStockBits : null;
+
+        Map<String, Map<String, Integer>> attributeCounts = new LinkedHashMap<>();
+        attributeBits.forEach((key, byValue) -> {
+            BitSet base = intersect(attributeFilters, key, priceFilter, stockFilter);
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            byValue.forEach((value, bits) -> counts.put(value, countAnd(base, bits)));
+            attributeCounts.put(key, counts);
+        });
+
+        BitSet priceBase = intersect(attributeFilters, null, null, stockFilter);
+        Map<String, Integer> priceBandCounts = new LinkedHashMap<>();
+        priceBandBits.forEach((band, bits) -> priceBandCounts.put(band, countAnd(priceBase, bits)));
+
+        int inStockCount = countAnd(intersect(attributeFilters, null, priceFilter, null), inStockBits);
+
+        BitSet matches = intersect(attributeFilters, null, priceFilter, stockFilter);
+        List<Integer> ordinals = matches.stream().boxed().toList();
+        return new Result(ordinals, attributeCounts, priceBandCounts, inStockCount);
+    }
+
+    private BitSet intersect(Map<String, BitSet> attributeFilters, String skipKey, BitSet priceFilter, BitSet stockFilter) {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+        attributeFilters.forEach((key, bits) -> {
+            if (!key.equals(skipKey)) {
+                result.and(bits);
+            }
+        });
+        if (priceFilter != null) {
+            result.and(priceFilter);
+        }
+        if (stockFilter != null) {
+            result.and(stockFilter);
+        }
+        return result;
+    }
+
+    private static BitSet union(Collection<BitSet> sets) {
+        BitSet result = new BitSet();
+        for (BitSet bits : sets) {
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static int countAnd(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+}
@@ -0,0 +1,179 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ProductResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index over the active products' name, description and attribute values.
+ * Text containing a {@link SearchSynonyms} alias is indexed under the canonical words as well.
+ * Terms are kept sorted so every query token is matched as a prefix with one range scan; a token
+ * with no prefix match falls back to the {@link FuzzyTermMatcher}.
+ * Documents are the ordinals of the snapshot's active product list (sorted by name).
+ */
+final class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int ATTRIBUTE_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // A whole-word hit outranks a prefix hit, which outranks a fuzzy hit, on the same field
+    private static final int EXACT_MULTIPLIER = 4;
+    private static final int PREFIX_MULTIPLIER = 2;
+    private static final int FUZZY_MULTIPLIER = 1;
+    private static final int MAX_QUERY_TOKENS = 8;
+    // Fuzzy lookups share this budget per query; past it they return what they have
+    private static final long FUZZY_BUDGET_NANOS = 2_000_000;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private record Posting(int ordinal, int weight) {}
+
+    private final List<String> documentKeys;
+    private final NavigableMap<String, Posting[]> postings;
+    private final FuzzyTermMatcher fuzzy;
+
+    private ProductSearchIndex(List<String> documentKeys, NavigableMap<String, Posting[]> postings) {
+        this.documentKeys = documentKeys;
+        this.postings = postings;
+        this.fuzzy = new FuzzyTermMatcher(postings.keySet());
+    }
+
+    /**
+     * Indexes the products, reusing {@code previous} when none of the searchable text changed
+     * (stock and price updates after every order leave the index untouched).
+     */
+    static ProductSearchIndex build(List<ProductResponse> products, SearchSynonyms synonyms,
+                                    ProductSearchIndex previous) {
+        List<String> keys = products.stream().map(ProductSearchIndex::documentKey).toList();
+        if (previous != null && previous.documentKeys.equals(keys)) {
+            return previous;
+        }
+
+        Map<String, Map<Integer, Integer>> weights = new HashMap<>();
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            ProductResponse product = products.get(ordinal);
+            addField(weights, synonyms, ordinal, product.getName(), NAME_WEIGHT);
+            if (product.getAttributes() != null) {
+                for (String value : product.getAttributes().values()) {
+                    addField(weights, synonyms, ordinal, value, ATTRIBUTE_WEIGHT);
+                }
+            }
+            addField(weights, synonyms, ordinal, product.getDescription(), DESCRIPTION_WEIGHT);
+        }
+
+        NavigableMap<String, Posting[]> postings = new TreeMap<>();
+        weights.forEach((term, byOrdinal) -> postings.put(term, byOrdinal.entrySet().stream()
+                .map(e -> new Posting(e.getKey(), e.getValue()))
+                .toArray(Posting[]::new)));
+        return new ProductSearchIndex(keys, Collections.unmodifiableNavigableMap(postings));
+    }
+
+    /**
+     * Returns the ordinals of products matching every query token (as a word prefix, or failing
+     * that a fuzzy match), best first. Ties keep catalog (name) order.
+     */
+    List<Integer> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || documentKeys.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > MAX_QUERY_TOKENS) {
+            tokens = tokens.subList(0, MAX_QUERY_TOKENS);
+        }
+
+        long fuzzyDeadline = System.nanoTime() + FUZZY_BUDGET_NANOS;
+        int size = documentKeys.size();
+        int[] scores = new int[size];
+        boolean[] excluded = new boolean[size];
+        int[] tokenScores = new int[size];
+        for (String token : tokens) {
+            Arrays.fill(tokenScores, 0);
+            NavigableMap<String, Posting[]> prefixed = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Posting[]> entry : prefixed.entrySet()) {
+                int multiplier = entry.getKey().length() == token.length() ? EXACT_MULTIPLIER : PREFIX_MULTIPLIER;
+                score(entry.getValue(), multiplier, tokenScores);
+            }
+            if (prefixed.isEmpty()) {
+                for (String term : fuzzy.match(token, fuzzyDeadline)) {
+                    score(postings.get(term), FUZZY_MULTIPLIER, tokenScores);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (tokenScores[i] == 0) {
+                    excluded[i] = true;
+                } else {
+                    scores[i] += tokenScores[i];
+                }
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (!excluded[i]) {
+                matches.add(i);
+            }
+        }
+        matches.sort((a, b) -> scores[a] != scores[b] ? Integer.compare(scores[b], scores[a]) : Integer.compare(a, b));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static void score(Posting[] termPostings, int multiplier, int[] tokenScores) {
+        for (Posting posting : termPostings) {
+            tokenScores[posting.ordinal()] = Math.max(tokenScores[posting.ordinal()], posting.weight() * multiplier);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addField(Map<String, Map<Integer, Integer>> weights, SearchSynonyms synonyms,
+                                 int ordinal, String text, int weight) {
+        List<String> terms = tokenize(text);
+        List<String> canonical = synonyms.canonicalize(terms);
+        addTerms(weights, ordinal, terms, weight);
+        if (canonical != terms) {
+            addTerms(weights, ordinal, canonical, weight);
+        }
+    }
+
+    private static void addTerms(Map<String, Map<Integer, Integer>> weights, int ordinal, List<String> terms,
+                                 int weight) {
+        for (String term : terms) {
+            weights.computeIfAbsent(term, t -> new HashMap<>()).merge(ordinal, weight, Math::max);
+        }
+    }
+
+    private static String documentKey(ProductResponse product) {
+        StringBuilder key = new StringBuilder()
+                .append(product.getId()).append('\u0000')
+                .append(product.getName()).append('\u0000')
+                .append(product.getDescription());
+        if (product.getAttributes() != null) {
+            product.getAttributes().values().stream().sorted()
+                    .forEach(value -> key.append('\u0000').append(value));
+        }
+        return key.toString();
+    }
+}
@@ -1,80 +1,217 @@
 package com.skmstore.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.skmstore.dto.request.ProductRequest;
+import com.skmstore.dto.response.ProductFilterResponse;
 import com.skmstore.dto.response.ProductResponse;
+import com.skmstore.exception.BusinessException;
 import com.skmstore.exception.ResourceNotFoundException;
+import com.skmstore.model.Money;
 import com.skmstore.model.Product;
-import com.skmstore.model.ProductAttribute;
+import com.skmstore.model.ProductAttributesConverter;
+import com.skmstore.model.Quantity;
 import com.skmstore.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.HashMap;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+    private static final ProductAttributesConverter ATTRIBUTES_CONVERTER = new ProductAttributesConverter();
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ObjectMapper objectMapper;
+    private final SearchSynonyms searchSynonyms;
+    private final InventoryService inventoryService;
+    private final EntityManager entityManager;
+
+    // Public catalog served from memory; rebuilt off the request thread after each committed change
+    private final AtomicReference<CatalogSnapshot> catalog = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicBoolean catalogRefreshQueued = new AtomicBoolean();
+    private final ExecutorService catalogRefresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          ImageStore imageStore,
+                          ImageDerivativeService imageDerivativeService,
+                          ObjectMapper objectMapper,
+                          SearchSynonyms searchSynonyms,
+                          InventoryService inventoryService,
+                          EntityManager entityManager) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.objectMapper = objectMapper;
+        this.searchSynonyms = searchSynonyms;
+        this.inventoryService = inventoryService;
+        this.entityManager = entityManager;
     }
 
-    public List<ProductResponse> getAllActiveProducts() {
-        return productRepository.findByActiveTrueOrderByNameAsc().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public CatalogSnapshot getCatalog() {
+        CatalogSnapshot snapshot = catalog.get();
+        if (snapshot.getVersion() == 0) {
+            refreshCatalog();
+            snapshot = catalog.get();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Whether {@code hash} is the product's current image. The snapshot answers almost always;
+     * the database is only asked when they disagree, e.g. just after an upload, before the
+     * snapshot has been rebuilt.
+     */
+    public boolean hasImage(Long productId, String hash) {
+        return getCatalog().hasImage(productId, hash)
+                || productRepository.existsByIdAndImageHash(productId, hash);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCatalog() {
+        refreshCatalog();
     }
 
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Coalesce bursts (e.g. many orders) into a single rebuild; a change committed
+        // while a rebuild is running queues exactly one more.
+        if (catalogRefreshQueued.compareAndSet(false, true)) {
+            catalogRefresher.execute(() -> {
+                catalogRefreshQueued.set(false);
+                try {
+                    refreshCatalog();
+                } catch (RuntimeException e) {
+                    log.error("Catalog refresh failed, keeping version {}", catalog.get().getVersion(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reloads every product in one query and swaps the snapshot in. The version is taken before
+     * the read, so a slower rebuild that started earlier can never replace a newer one.
+     */
+    public void refreshCatalog() {
+        long version = catalogVersion.incrementAndGet();
+        List<ProductResponse> products = productRepository.findAllByOrderByNameAsc().stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+        CatalogSnapshot next = CatalogSnapshot.of(version, products, searchSynonyms,
+                response -> PrecompressedBody.json(objectMapper, response), catalog.get());
+        catalog.accumulateAndGet(next, (current, candidate) ->
+                candidate.getVersion() > current.getVersion() ? candidate : current);
     }
 
-    public ProductResponse getProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return toResponse(product);
+    @PreDestroy
+    void shutdownCatalogRefresher() {
+        catalogRefresher.shutdownNow();
+    }
+
+    /**
+     * Passes every product to {@code consumer}, mapped one at a time from a cursor and detached
+     * right after, so the persistence context never holds the whole catalog.
+     */
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<ProductResponse> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                consumer.accept(toResponse(product));
+                entityManager.detach(product);
+            });
+        }
     }
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         Product product = new Product();
         mapRequestToEntity(request, product);
+        product.setStockKg(Quantity.ofKilograms(request.getStockKg()));
         product = productRepository.save(product);
+        inventoryService.stockAdjusted(product.getId(), null, product.getStockKg());
+        eventPublisher.publishEvent(new CatalogChangedEvent(product.getId()));
         return toResponse(product);
     }
 
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        final Product product = productRepository.findById(id)
+        Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
+        // The stock edit is the admin's change to what they were shown, applied on top of the
+        // stored stock; a save without a stock change leaves concurrent orders' takes intact
+        Quantity shownStock = request.getPreviousStockKg() != null
+                ? Quantity.ofKilograms(request.getPreviousStockKg())
+                : product.getStockKg();
+        Quantity requestedStock = Quantity.ofKilograms(request.getStockKg());
         mapRequestToEntity(request, product);
 
-        // Clear old attributes and add new ones
-        product.getAttributes().clear();
-        if (request.getAttributes() != null) {
-            request.getAttributes().forEach((key, value) -> {
-                ProductAttribute attr = new ProductAttribute(product, key, value);
-                product.getAttributes().add(attr);
-            });
-        }
-
         Product saved = productRepository.save(product);
+        if (requestedStock.grams() != shownStock.grams()) {
+            productRepository.adjustStock(id,
+                    new Quantity(requestedStock.grams() - shownStock.grams()).toKilograms(), LocalDateTime.now());
+            saved.setStockKg(productRepository.findStockKgById(id));
+        }
+        inventoryService.stockAdjusted(id, shownStock, requestedStock);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
         return toResponse(saved);
     }
 
+    /**
+     * Replaces the product image with an uploaded stream. The bytes go straight to the image
+     * store, so the product JSON requests never carry image data.
+     */
+    @Transactional
+    public ProductResponse updateImage(Long id, InputStream content) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        String hash = imageStore.store(content);
+        product.setImageHash(hash);
+        imageDerivativeService.generateAsync(hash);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
+        return toResponse(productRepository.save(product));
+    }
+
     @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
     }
 
     @Transactional
@@ -82,6 +219,7 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         product.setActive(!product.getActive());
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
         return toResponse(productRepository.save(product));
     }
 
@@ -90,30 +228,40 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         product.setSpecial(!Boolean.TRUE.equals(product.getSpecial()));
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
         return toResponse(productRepository.save(product));
     }
 
-    public List<ProductResponse> searchProducts(String query) {
-        return productRepository.findByNameContainingIgnoreCaseAndActiveTrue(query).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public List<ProductResponse> searchProducts(String query, int limit) {
+        return getCatalog().search(searchSynonyms.expand(query), limit);
+    }
+
+    public ProductFilterResponse filterProducts(Map<String, Set<String>> attributes, Set<String> priceBands,
+                                                boolean inStock) {
+        for (String band : priceBands) {
+            if (ProductFacetIndex.PriceBand.fromKey(band).isEmpty()) {
+                throw new BusinessException("Unknown price band: " + band);
+            }
+        }
+        return getCatalog().filter(attributes, priceBands, inStock);
     }
 
     private void mapRequestToEntity(ProductRequest request, Product product) {
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setOriginalPrice(request.getOriginalPrice());
-        product.setSalePrice(request.getSalePrice());
-        product.setImage(request.getImage());
-        product.setStockKg(request.getStockKg());
-        product.setMinOrderKg(request.getMinOrderKg());
-
-        if (request.getAttributes() != null && product.getId() == null) {
-            request.getAttributes().forEach((key, value) -> {
-                ProductAttribute attr = new ProductAttribute(product, key, value);
-                product.getAttributes().add(attr);
-            });
+        product.setOriginalPrice(Money.ofRupees(request.getOriginalPrice()));
+        product.setSalePrice(Money.ofRupees(request.getSalePrice()));
+        product.setMinOrderKg(Quantity.ofKilograms(request.getMinOrderKg()));
+
+        // Replaces all attributes; stored in the product row itself
+        Map<String, String> attributes = request.getAttributes() != null
+                ? new LinkedHashMap<>(request.getAttributes())
+                : new LinkedHashMap<>();
+        String packed = ATTRIBUTES_CONVERTER.convertToDatabaseColumn(attributes);
+        if (packed != null && packed.length() > Product.ATTRIBUTES_MAX_LENGTH) {
+            throw new BusinessException("Product attributes are too long");
         }
+        product.setAttributes(attributes);
     }
 
     private ProductResponse toResponse(Product product) {
@@ -121,22 +269,28 @@ public class ProductService {
         response.setId(product.getId());
         response.setName(product.getName());
         response.setDescription(product.getDescription());
-        response.setOriginalPrice(product.getOriginalPrice());
-        response.setSalePrice(product.getSalePrice());
-        response.setEffectivePrice(product.getEffectivePrice());
+        response.setOriginalPrice(product.getOriginalPrice().toBigDecimal());
+        response.setSalePrice(product.getSalePrice() != null ? product.getSalePrice().toBigDecimal() : null);
+        response.setEffectivePrice(product.getEffectivePrice().toBigDecimal());
         response.setOnSale(product.isOnSale());
-        response.setImage(product.getImage());
-        response.setStockKg(product.getStockKg());
-        response.setMinOrderKg(product.getMinOrderKg());
+        response.setImageUrl(ImageStore.urlFor(product.getId(), product.getImageHash()));
+        if (product.getImageHash() != null) {
+            Map<String, String> sizes = new LinkedHashMap<>();
+            for (ImageVariant variant : ImageVariant.values()) {
+                sizes.put(variant.key(), ImageStore.urlFor(product.getId(), product.getImageHash(), variant));
+            }
+            response.setImageSizes(sizes);
+        }
+        response.setStockKg(product.getStockKg().toKilograms());
+        response.setMinOrderKg(product.getMinOrderKg().toKilograms());
         response.setInStock(product.isInStock());
         response.setActive(product.getActive());
         response.setSpecial(Boolean.TRUE.equals(product.getSpecial()));
+        response.setUpdatedAt(product.getUpdatedAt());
 
-        Map<String, String> attrs = new HashMap<>();
-        if (product.getAttributes() != null) {
-            product.getAttributes().forEach(a -> attrs.put(a.getAttrKey(), a.getAttrValue()));
-        }
-        response.setAttributes(attrs);
+        response.setAttributes(product.getAttributes() != null
+                ? new LinkedHashMap<>(product.getAttributes())
+                : new LinkedHashMap<>());
 
         return response;
     }
@@ -0,0 +1,85 @@
+package com.skmstore.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps regional and alternate mango names to the names used in the catalog, e.g. "hapus" to
+ * "alphonso". Queries are rewritten to the canonical names, and product text is indexed under
+ * both, so "hapus" finds a product called Alphonso as well as one that only says Hapus.
+ * Configured through {@code app.search.synonyms} as comma-separated {@code alias:canonical}
+ * pairs; either side may be several words.
+ */
+@Component
+public class SearchSynonyms {
+
+    private static final int MAX_ALIAS_WORDS = 3;
+
+    private final Map<String, String> canonicalByAlias = new HashMap<>();
+
+    public SearchSynonyms(@Value("${app.search.synonyms:}") String synonyms) {
+        for (String pair : synonyms.split(",")) {
+            int separator = pair.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+            String alias = String.join(" ", ProductSearchIndex.tokenize(pair.substring(0, separator)));
+            String canonical = String.join(" ", ProductSearchIndex.tokenize(pair.substring(separator + 1)));
+            if (!alias.isEmpty() && !canonical.isEmpty()) {
+                canonicalByAlias.put(alias, canonical);
+            }
+        }
+    }
+
+    /**
+     * Replaces known aliases in the query, longest match first.
+     */
+    public String expand(String query) {
+        if (canonicalByAlias.isEmpty()) {
+            return query;
+        }
+        List<String> tokens = ProductSearchIndex.tokenize(query);
+        return tokens.isEmpty() ? query : String.join(" ", canonicalize(tokens));
+    }
+
+    /**
+     * The tokens with known aliases replaced by their canonical words, longest match first;
+     * the same list when there is nothing to replace.
+     */
+    List<String> canonicalize(List<String> tokens) {
+        if (canonicalByAlias.isEmpty()) {
+            return tokens;
+        }
+        List<String> canonical = null;
+        int i = 0;
+        while (i < tokens.size()) {
+            String replacement = null;
+            int consumed = 1;
+            for (int words = Math.min(MAX_ALIAS_WORDS, tokens.size() - i); words >= 1; words--) {
+                replacement = canonicalByAlias.get(String.join(" ", tokens.subList(i, i + words)));
+                if (replacement != null) {
+                    consumed = words;
+                    break;
+                }
+            }
+            if (replacement != null && canonical == null) {
+                canonical = new ArrayList<>(tokens.subList(0, i));
+            }
+            if (canonical != null) {
+                if (replacement != null) {
+                    canonical.addAll(Arrays.asList(replacement.split(" ")));
+                } else {
+                    canonical.add(tokens.get(i));
+                }
+            }
+            i += consumed;
+        }
+        return canonical != null ? canonical : tokens;
+    }
+}
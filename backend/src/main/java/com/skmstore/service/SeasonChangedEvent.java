@@ -0,0 +1,6 @@
+package com.skmstore.service;
+
+/**
+ * Published when the {@code season_active} setting changes. Handled after the transaction commits.
+ */
+public record SeasonChangedEvent(boolean active) {}
@@ -0,0 +1,171 @@
+package com.skmstore.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The order intake journal as a chain of fixed-size {@link IntakeJournal} segments:
+ * {@code orders.journal}, {@code orders.journal.1}, {@code orders.journal.2}, ... Records go to
+ * the newest segment, and a full one rolls over to the next. A pending record (an accepted
+ * ticket) keeps its segment until it is marked done. Segments are dropped oldest first once
+ * nothing in them is pending: a done record always lands in the same or a later segment than
+ * the record it completes, so it is never lost while that record can still be replayed.
+ */
+final class SegmentedIntakeJournal implements AutoCloseable {
+
+    interface RecordConsumer {
+        void accept(long segment, byte type, byte[] payload);
+    }
+
+    private static final class Segment {
+        final long id;
+        final IntakeJournal journal;
+        int pending;
+
+        Segment(long id, IntakeJournal journal) {
+            this.id = id;
+            this.journal = journal;
+        }
+    }
+
+    private final Path baseFile;
+    private final int segmentBytes;
+    private final int maxSegments;
+    // Oldest first; ids are contiguous because only the oldest is ever dropped
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<Long, Segment> segmentsById = new HashMap<>();
+
+    /**
+     * Opens every segment already on disk, or a first empty one.
+     */
+    SegmentedIntakeJournal(Path baseFile, int segmentBytes, int maxSegments) {
+        this.baseFile = baseFile;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(maxSegments, 1);
+        List<Long> ids = existingSegmentIds();
+        if (ids.isEmpty()) {
+            ids = List.of(0L);
+        }
+        ids.forEach(this::open);
+    }
+
+    /**
+     * Reads every intact record, oldest segment first, and leaves each segment's write position
+     * after its last record.
+     */
+    synchronized void replay(RecordConsumer consumer) {
+        for (Segment segment : segments) {
+            segment.journal.replay((type, payload) -> consumer.accept(segment.id, type, payload));
+        }
+    }
+
+    /**
+     * Records that a replayed record from {@code segment} is still pending.
+     */
+    synchronized void markPending(long segment) {
+        segmentsById.get(segment).pending++;
+    }
+
+    boolean fits(byte[] payload) {
+        return IntakeJournal.recordBytes(payload.length) <= segmentBytes;
+    }
+
+    /**
+     * Appends a record that keeps its segment until {@link #appendDone} is called for it.
+     * Returns the segment it went to, or -1, writing nothing, when every segment is in use.
+     */
+    synchronized long appendPending(byte type, byte[] payload) {
+        Segment segment = append(type, payload);
+        if (segment == null) {
+            return -1;
+        }
+        segment.pending++;
+        return segment.id;
+    }
+
+    /**
+     * Appends the record that completes a pending one from {@code segment}, then drops the
+     * segments nothing is pending in any more.
+     */
+    synchronized void appendDone(long segment, byte type, byte[] payload) {
+        // If this does not fit, a restart replays the pending record and its idempotency key settles it
+        append(type, payload);
+        segmentsById.get(segment).pending--;
+        reclaim();
+    }
+
+    /**
+     * Drops the oldest segments while nothing in them is pending. The last segment is kept and,
+     * once nothing in it is pending either, started over.
+     */
+    synchronized void reclaim() {
+        while (segments.size() > 1 && segments.getFirst().pending == 0) {
+            Segment oldest = segments.removeFirst();
+            segmentsById.remove(oldest.id);
+            oldest.journal.delete();
+        }
+        if (segments.size() == 1 && segments.getFirst().pending == 0) {
+            segments.getFirst().journal.reset();
+        }
+    }
+
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(segment -> segment.journal.close());
+    }
+
+    private Segment append(byte type, byte[] payload) {
+        Segment head = segments.getLast();
+        if (head.journal.append(type, payload)) {
+            return head;
+        }
+        if (segments.size() >= maxSegments) {
+            return null;
+        }
+        Segment next = open(head.id + 1);
+        reclaim();
+        return next.journal.append(type, payload) ? next : null;
+    }
+
+    private Segment open(long id) {
+        Segment segment = new Segment(id, new IntakeJournal(segmentFile(id), segmentBytes));
+        segments.addLast(segment);
+        segmentsById.put(id, segment);
+        return segment;
+    }
+
+    private Path segmentFile(long id) {
+        return id == 0 ? baseFile : baseFile.resolveSibling(baseFile.getFileName() + "." + id);
+    }
+
+    private List<Long> existingSegmentIds() {
+        Path directory = baseFile.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String baseName = baseFile.getFileName().toString();
+        Pattern segmentName = Pattern.compile(Pattern.quote(baseName) + "(\\.\\d+)?");
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> segmentName.matcher(name).matches())
+                    .map(name -> name.equals(baseName) ? 0L : Long.parseLong(name.substring(baseName.length() + 1)))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list order intake journal segments in " + directory, e);
+        }
+    }
+}
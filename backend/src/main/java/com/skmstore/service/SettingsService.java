@@ -1,20 +1,41 @@
 package com.skmstore.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.dto.response.ApiResponse;
 import com.skmstore.model.AppSetting;
 import com.skmstore.repository.AppSettingRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class SettingsService {
 
+    private static final String SEASON_ACTIVE = "season_active";
+
     private final AppSettingRepository appSettingRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Public settings response kept in memory; a write bumps the generation and the next read reloads
+    private final AtomicLong publicSettingsGeneration = new AtomicLong();
+    private final AtomicReference<CachedBody> publicSettingsBody = new AtomicReference<>();
 
-    public SettingsService(AppSettingRepository appSettingRepository) {
+    private record CachedBody(long generation, PrecompressedBody body) {}
+
+    public SettingsService(AppSettingRepository appSettingRepository,
+                           ObjectMapper objectMapper,
+                           ApplicationEventPublisher eventPublisher) {
         this.appSettingRepository = appSettingRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     public String getSetting(String key) {
@@ -32,13 +53,18 @@ public class SettingsService {
     @Transactional
     public void setSetting(String key, String value) {
         AppSetting setting = appSettingRepository.findBySettingKey(key)
-                .orElse(new AppSetting(key, value));
+                .orElse(new AppSetting(key, null));
+        String previous = setting.getSettingValue();
         setting.setSettingValue(value);
         appSettingRepository.save(setting);
+        invalidatePublicSettings();
+        if (SEASON_ACTIVE.equals(key) && "true".equalsIgnoreCase(previous) != "true".equalsIgnoreCase(value)) {
+            eventPublisher.publishEvent(new SeasonChangedEvent("true".equalsIgnoreCase(value)));
+        }
     }
 
     public boolean isSeasonActive() {
-        return "true".equalsIgnoreCase(getSetting("season_active", "false"));
+        return "true".equalsIgnoreCase(getSetting(SEASON_ACTIVE, "false"));
     }
 
     public Map<String, String> getAllSettings() {
@@ -56,6 +82,35 @@ public class SettingsService {
         return publicSettings;
     }
 
+    /**
+     * Ready-made public settings response. Only the first read after a change touches the database.
+     */
+    public PrecompressedBody getPublicSettingsBody() {
+        long generation = publicSettingsGeneration.get();
+        CachedBody cached = publicSettingsBody.get();
+        if (cached != null && cached.generation() == generation) {
+            return cached.body();
+        }
+        PrecompressedBody body = PrecompressedBody.json(objectMapper,
+                ApiResponse.success("Settings retrieved", getPublicSettings()));
+        // A load that raced with a write keeps its older generation and is ignored by later reads
+        publicSettingsBody.set(new CachedBody(generation, body));
+        return body;
+    }
+
+    private void invalidatePublicSettings() {
+        publicSettingsGeneration.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Readers during the transaction may have cached the old values; drop them once committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicSettingsGeneration.incrementAndGet();
+                }
+            });
+        }
+    }
+
     @Transactional
     public void updateSettings(Map<String, String> settings) {
         settings.forEach(this::setSetting);
@@ -0,0 +1,215 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.StockHoldResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import com.skmstore.model.StockHold;
+import com.skmstore.repository.StockHoldRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Checkout stock holds. A hold takes the stock up front, so a buyer who pays within the hold
+ * cannot lose the race to someone faster. Each user has at most one hold; holds are persisted
+ * so a restart neither leaks nor double-releases them, and expire through a timing wheel.
+ */
+@Service
+public class StockHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockHoldService.class);
+
+    private final StockHoldRepository stockHoldRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final long tickMillis;
+    private final long expiryRetryMillis;
+    private HashedTimingWheel<String> expiryWheel;
+
+    public StockHoldService(StockHoldRepository stockHoldRepository,
+                            InventoryService inventoryService,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.stock-holds.ttl-minutes:10}") long ttlMinutes,
+                            @Value("${app.stock-holds.tick-ms:1000}") long tickMillis,
+                            @Value("${app.stock-holds.expiry-retry-ms:5000}") long expiryRetryMillis) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.tickMillis = tickMillis;
+        this.expiryRetryMillis = expiryRetryMillis;
+    }
+
+    /**
+     * The wheel calls back into this service from its own thread, so it is only created once
+     * the service is fully constructed, before any hold can be placed or restored.
+     */
+    @PostConstruct
+    void startExpiryWheel() {
+        expiryWheel = new HashedTimingWheel<>("stock-hold-expiry", tickMillis, 512, this::expire);
+        expiryWheel.start();
+    }
+
+    /**
+     * Holds the quantities for the user, replacing the user's previous hold. Must run in the
+     * caller's transaction; the products have already been validated.
+     */
+    public StockHoldResponse hold(Long userId, Map<Long, Quantity> quantities, Map<Long, Product> products) {
+        LocalDateTime now = LocalDateTime.now();
+        releaseRows(stockHoldRepository.findByUserIdForUpdate(userId), now);
+
+        List<Long> insufficient = inventoryService.take(quantities, now);
+        if (!insufficient.isEmpty()) {
+            Product product = products.get(insufficient.get(0));
+            throw new BusinessException("Insufficient stock for " + product.getName()
+                    + ". Available: " + inventoryService.getAvailableKg(product.getId()) + " KG");
+        }
+
+        String holdId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = now.plus(ttl);
+        boolean flashSale = inventoryService.isFlashSale();
+        List<StockHold> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantityKg) ->
+                rows.add(new StockHold(holdId, userId, productId, quantityKg, flashSale, expiresAt)));
+        stockHoldRepository.saveAll(rows);
+
+        afterCommit(() -> expiryWheel.schedule(holdId, ttl.toMillis()));
+        eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+        return new StockHoldResponse(holdId, expiresAt, quantities);
+    }
+
+    /**
+     * Removes the user's hold and returns its lines by product id, or an empty map if it has
+     * expired or belongs to someone else. The stock stays taken; the caller now owns it, and a
+     * rollback restores the hold.
+     */
+    public Map<Long, StockHold> consume(String holdId, Long userId) {
+        List<StockHold> rows = stockHoldRepository.findByHoldIdInForUpdate(List.of(holdId));
+        if (rows.isEmpty() || !rows.get(0).getUserId().equals(userId)) {
+            return Map.of();
+        }
+        stockHoldRepository.deleteAllInBatch(rows);
+        afterCommit(() -> expiryWheel.cancel(holdId));
+
+        Map<Long, StockHold> byProduct = new LinkedHashMap<>();
+        rows.forEach(row -> byProduct.put(row.getProductId(), row));
+        return byProduct;
+    }
+
+    /**
+     * Gives consumed hold lines back to stock, e.g. when the order did not match the hold.
+     */
+    public void release(Iterable<StockHold> rows, LocalDateTime now) {
+        Map<Long, Quantity> fromDatabase = new TreeMap<>();
+        Map<Long, Quantity> fromCounters = new TreeMap<>();
+        for (StockHold row : rows) {
+            (Boolean.TRUE.equals(row.getFlashSale()) ? fromCounters : fromDatabase)
+                    .merge(row.getProductId(), row.getQuantityKg(), Quantity::plus);
+        }
+        if (!fromDatabase.isEmpty()) {
+            inventoryService.release(fromDatabase, false, now);
+        }
+        if (!fromCounters.isEmpty()) {
+            inventoryService.release(fromCounters, true, now);
+        }
+    }
+
+    public void cancel(Long userId, String holdId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, StockHold> rows = consume(holdId, userId);
+            if (!rows.isEmpty()) {
+                release(rows.values(), LocalDateTime.now());
+                eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+            }
+        });
+    }
+
+    /**
+     * Re-arms the persisted holds after a restart; ones that expired while down go back at the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockHoldRepository.HoldExpiry> holds = stockHoldRepository.findHoldExpiries();
+        for (StockHoldRepository.HoldExpiry hold : holds) {
+            expiryWheel.schedule(hold.getHoldId(), Duration.between(now, hold.getExpiresAt()).toMillis());
+        }
+        if (!holds.isEmpty()) {
+            log.info("Restored {} stock holds", holds.size());
+        }
+    }
+
+    @PreDestroy
+    void stopExpiryWheel() {
+        expiryWheel.stop();
+    }
+
+    /**
+     * The wheel has already dropped these holds, so if releasing them fails they are scheduled
+     * again shortly; otherwise their stock would stay taken until the next restart.
+     */
+    private void expire(List<String> holdIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<StockHold> rows = stockHoldRepository.findByHoldIdInForUpdate(holdIds);
+                if (!rows.isEmpty()) {
+                    stockHoldRepository.deleteAllInBatch(rows);
+                    release(rows, LocalDateTime.now());
+                    eventPublisher.publishEvent(CatalogChangedEvent.allProducts());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not expire {} stock holds, retrying in {} ms: {}",
+                    holdIds.size(), expiryRetryMillis, e.getMessage());
+            holdIds.forEach(holdId -> expiryWheel.schedule(holdId, expiryRetryMillis));
+            return;
+        }
+        log.debug("Expired {} stock holds", holdIds.size());
+    }
+
+    private void releaseRows(List<StockHold> rows, LocalDateTime now) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        stockHoldRepository.deleteAllInBatch(rows);
+        release(rows, now);
+        rows.stream().map(StockHold::getHoldId).distinct()
+                .forEach(holdId -> afterCommit(() -> expiryWheel.cancel(holdId)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.skmstore.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available stock of one product in grams, split across stripes so concurrent buyers CAS
+ * different cache lines instead of all contending on one value. A take drains the caller's
+ * home stripe first and borrows from the others only when it runs short.
+ */
+final class StripedStockCounter {
+
+    // Longs per 64-byte cache line; only every PADDING-th slot is used
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    StripedStockCounter(int stripes, long grams) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        long share = Math.max(grams, 0) / stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, share);
+        }
+        cells.addAndGet(0, grams - share * stripes);
+    }
+
+    long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    /**
+     * Takes all of {@code grams} or nothing. Under heavy contention a take can fail while another
+     * take is halfway through borrowing, even though the total would have been enough.
+     */
+    boolean tryTake(long grams) {
+        long remaining = drain(grams);
+        if (remaining > 0) {
+            add(grams - remaining);
+            return false;
+        }
+        return true;
+    }
+
+    void add(long grams) {
+        cells.addAndGet(home() * PADDING, grams);
+    }
+
+    /**
+     * Applies an admin stock change. A reduction larger than what is left leaves the counter
+     * negative, so nothing more sells until stock is added back.
+     */
+    void adjust(long grams) {
+        if (grams >= 0) {
+            add(grams);
+        } else {
+            long remaining = drain(-grams);
+            if (remaining > 0) {
+                add(-remaining);
+            }
+        }
+    }
+
+    private long drain(long grams) {
+        long remaining = grams;
+        int start = home();
+        for (int i = 0; i < stripes && remaining > 0; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            long current;
+            long take;
+            do {
+                current = cells.get(index);
+                if (current <= 0) {
+                    take = 0;
+                    break;
+                }
+                take = Math.min(current, remaining);
+            } while (!cells.compareAndSet(index, current, current - take));
+            remaining -= take;
+        }
+        return remaining;
+    }
+
+    private int home() {
+        return (int) (Thread.currentThread().threadId() % stripes);
+    }
+
+    static long gramsFloor(BigDecimal kg) {
+        return kg.movePointRight(3).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+
+    static BigDecimal kilograms(long grams) {
+        return BigDecimal.valueOf(grams, 3).setScale(2, RoundingMode.FLOOR);
+    }
+}
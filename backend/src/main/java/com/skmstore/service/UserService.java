@@ -8,7 +8,6 @@ import com.skmstore.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 @Service
 public class UserService {
@@ -29,10 +28,6 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
-    }
-
     @Transactional
     public User updateProfile(Long userId, String name, String email) {
         User user = getUserById(userId);
@@ -0,0 +1,201 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.WaitingRoomResponse;
+import com.skmstore.exception.BusinessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room for the season opening ({@code app.waiting-room.enabled}). When
+ * {@code season_active} turns on, every customer reaching checkout joins a queue and gets an
+ * HMAC-signed token carrying their place in line. A ticker admits the queue at
+ * {@code admit-per-second}; until their place is admitted, stock holds and orders are refused.
+ * Joining and position checks only touch memory, never the database. The room closes once it
+ * has been open for {@code min-open-minutes} and the queue has drained.
+ * <p>
+ * Queue state is per instance and is not kept across restarts; a restart while the room is open
+ * lets everyone through.
+ */
+@Service
+public class WaitingRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomService.class);
+
+    public static final String TOKEN_HEADER = "X-Queue-Token";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    /**
+     * One opening of the room. Tokens name their room, so tokens from an earlier opening are refused.
+     */
+    private record Room(long id, Instant openedAt, AtomicLong issued, AtomicLong admittedThrough,
+                        Map<Long, Long> positions) {
+
+        Room(long id, Instant openedAt) {
+            this(id, openedAt, new AtomicLong(), new AtomicLong(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Token(long roomId, long position, Long userId) {}
+
+    private final boolean enabled;
+    private final double admitPerSecond;
+    private final long tickMs;
+    private final Duration minOpen;
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+
+    private volatile Room room;
+    private double admissionCarry;
+
+    public WaitingRoomService(@Value("${app.waiting-room.enabled:false}") boolean enabled,
+                              @Value("${app.waiting-room.admit-per-second:20}") double admitPerSecond,
+                              @Value("${app.waiting-room.tick-ms:250}") long tickMs,
+                              @Value("${app.waiting-room.min-open-minutes:15}") long minOpenMinutes,
+                              @Value("${app.waiting-room.secret:${app.jwt.secret}}") String secret) {
+        this.enabled = enabled;
+        this.admitPerSecond = Math.max(admitPerSecond, 0.1);
+        this.tickMs = tickMs;
+        this.minOpen = Duration.ofMinutes(minOpenMinutes);
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeasonChanged(SeasonChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.active()) {
+            room = new Room(System.currentTimeMillis(), Instant.now());
+            log.info("Season opened: waiting room open, admitting {} customers per second", admitPerSecond);
+        } else {
+            room = null;
+        }
+    }
+
+    /**
+     * Puts the customer in line, or returns their existing place if they already joined.
+     */
+    public WaitingRoomResponse join(Long userId) {
+        Room current = room;
+        if (current == null) {
+            return WaitingRoomResponse.open();
+        }
+        long position = current.positions().computeIfAbsent(userId, id -> current.issued().incrementAndGet());
+        return toResponse(current, new Token(current.id(), position, userId), sign(current.id(), position, userId));
+    }
+
+    /**
+     * Current place in line for a token. Needs no login and never touches the database.
+     */
+    public WaitingRoomResponse getPosition(String token) {
+        Room current = room;
+        if (current == null) {
+            return WaitingRoomResponse.open();
+        }
+        Token parsed = verify(token);
+        if (parsed == null || parsed.roomId() != current.id()) {
+            throw new BusinessException("Queue token is not valid, please rejoin the queue");
+        }
+        return toResponse(current, parsed, token);
+    }
+
+    /**
+     * Refuses checkout while the room is open and the customer's place has not been admitted yet.
+     */
+    public void checkAdmitted(Long userId, String token) {
+        Room current = room;
+        if (current == null) {
+            return;
+        }
+        Token parsed = verify(token);
+        if (parsed == null || parsed.roomId() != current.id() || !parsed.userId().equals(userId)) {
+            throw new BusinessException("Please join the queue to check out");
+        }
+        if (parsed.position() > current.admittedThrough().get()) {
+            throw new BusinessException("It is not your turn yet, please wait in the queue");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.waiting-room.tick-ms:250}")
+    public void admit() {
+        Room current = room;
+        if (current == null) {
+            return;
+        }
+        // Only this ticker advances the line, and never past the last issued place, so capacity
+        // left unused while nobody waits does not pile up for a later burst
+        admissionCarry += admitPerSecond * tickMs / 1000.0;
+        long step = (long) admissionCarry;
+        admissionCarry -= step;
+        long issued = current.issued().get();
+        long admitted = current.admittedThrough().accumulateAndGet(step, (through, add) -> Math.min(issued, through + add));
+        if (admitted >= issued && Instant.now().isAfter(current.openedAt().plus(minOpen))) {
+            room = null;
+            log.info("Waiting room closed after admitting {} customers", admitted);
+        }
+    }
+
+    private WaitingRoomResponse toResponse(Room current, Token token, String signed) {
+        long ahead = Math.max(token.position() - current.admittedThrough().get(), 0);
+        return new WaitingRoomResponse(true, signed, ahead, ahead == 0, (long) Math.ceil(ahead / admitPerSecond));
+    }
+
+    private String sign(long roomId, long position, Long userId) {
+        String payload = BASE64.encodeToString((roomId + ":" + position + ":" + userId).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + BASE64.encodeToString(hmac(payload));
+    }
+
+    private Token verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(hmac(payload), BASE64_DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            String[] parts = new String(BASE64_DECODER.decode(payload), StandardCharsets.UTF_8).split(":");
+            return new Token(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private byte[] hmac(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
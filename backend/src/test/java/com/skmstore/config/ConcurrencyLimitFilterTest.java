@@ -0,0 +1,169 @@
+package com.skmstore.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A streamed response is written on another thread after the filter chain has returned, so its
+ * slot must stay taken until the async request completes, not just until the handler returns.
+ */
+class ConcurrencyLimitFilterTest {
+
+    @RestController
+    static class AdminStubController {
+
+        @GetMapping("/api/admin/dashboard")
+        String dashboard() {
+            return "ok";
+        }
+
+        @GetMapping("/api/admin/orders/export")
+        ResponseEntity<StreamingResponseBody> export() {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @GetMapping("/api/admin/products")
+        ResponseEntity<StreamingResponseBody> products() {
+            return streamJson(out -> out.write("{\"success\":true,\"data\":[{\"id\":1}]}"
+                    .getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @GetMapping("/api/admin/users")
+        ResponseEntity<StreamingResponseBody> users() {
+            // Enough elements to commit the 200 before the cursor fails
+            return streamJson(out -> {
+                out.write("{\"success\":true,\"data\":[".getBytes(StandardCharsets.UTF_8));
+                out.write(new byte[16 * 1024]);
+                throw new IllegalStateException("Cursor closed");
+            });
+        }
+
+        private static ResponseEntity<StreamingResponseBody> streamJson(StreamingResponseBody body) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+    }
+
+    private ConcurrencyLimitFilter filter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        limitAdminTo(1);
+    }
+
+    private void limitAdminTo(int initial) {
+        limitAdminTo(initial, 5000);
+    }
+
+    private void limitAdminTo(int initial, long latencyMs) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.limits.admin.initial", String.valueOf(initial))
+                .withProperty("app.limits.admin.min", "1")
+                .withProperty("app.limits.admin.max", "8")
+                .withProperty("app.limits.admin.latency-ms", String.valueOf(latencyMs));
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), environment);
+        mockMvc = MockMvcBuilders.standaloneSetup(new AdminStubController())
+                .setControllerAdvice(new GlobalExceptionHandler(1024 * 1024))
+                .addFilters(filter)
+                .build();
+    }
+
+    @Test
+    void synchronousResponseReleasesItsSlotWhenTheChainReturns() throws Exception {
+        mockMvc.perform(get("/api/admin/dashboard")).andExpect(status().isOk());
+
+        assertThat(adminInFlight()).isZero();
+    }
+
+    @Test
+    void streamedExportHoldsItsSlotUntilTheAsyncRequestCompletes() throws Exception {
+        MvcResult streaming = mockMvc.perform(get("/api/admin/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(adminInFlight()).isEqualTo(1);
+        mockMvc.perform(get("/api/admin/dashboard")).andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id\n1\n"));
+        assertThat(adminInFlight()).isZero();
+        mockMvc.perform(get("/api/admin/dashboard")).andExpect(status().isOk());
+    }
+
+    @Test
+    void streamedJsonListHoldsItsSlotUntilTheAsyncRequestCompletes() throws Exception {
+        MvcResult streaming = mockMvc.perform(get("/api/admin/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(adminInFlight()).isEqualTo(1);
+        mockMvc.perform(get("/api/admin/users")).andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"success\":true,\"data\":[{\"id\":1}]}"));
+        assertThat(adminInFlight()).isZero();
+    }
+
+    @Test
+    void streamOutlastingTheLatencyTargetDoesNotLowerTheLimit() throws Exception {
+        // Any sampled response would be over a zero target
+        limitAdminTo(4, 0);
+
+        for (int i = 0; i < 3; i++) {
+            MvcResult streaming = mockMvc.perform(get("/api/admin/orders/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+        }
+
+        assertThat(adminInFlight()).isZero();
+        assertThat(admin().limit()).isEqualTo(4);
+    }
+
+    @Test
+    void streamedJsonListThatFailsAfterCommittingCountsAsFailed() throws Exception {
+        limitAdminTo(4);
+
+        MvcResult streaming = mockMvc.perform(get("/api/admin/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+
+        assertThat(adminInFlight()).isZero();
+        assertThat(admin().limit()).isLessThan(4);
+    }
+
+    private int adminInFlight() {
+        return admin().inFlight();
+    }
+
+    private ConcurrencyLimitFilter.LimitSnapshot admin() {
+        return filter.snapshot().stream()
+                .filter(group -> group.group().equals("admin"))
+                .findFirst().orElseThrow();
+    }
+}
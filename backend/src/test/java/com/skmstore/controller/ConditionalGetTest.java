@@ -0,0 +1,144 @@
+package com.skmstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.model.AppSetting;
+import com.skmstore.model.Money;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import com.skmstore.repository.AppSettingRepository;
+import com.skmstore.repository.ProductRepository;
+import com.skmstore.service.ImageDerivativeService;
+import com.skmstore.service.ImageStore;
+import com.skmstore.service.InventoryService;
+import com.skmstore.service.ProductService;
+import com.skmstore.service.SearchSynonyms;
+import com.skmstore.service.SettingsService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Revalidations of the catalog, a product and the public settings must be answered with 304
+ * from memory, without reaching a repository.
+ */
+class ConditionalGetTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final AppSettingRepository appSettingRepository = mock(AppSettingRepository.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ProductService productService = new ProductService(productRepository, mock(ApplicationEventPublisher.class),
+                mock(ImageStore.class), mock(ImageDerivativeService.class), objectMapper, new SearchSynonyms(""),
+                mock(InventoryService.class), mock(EntityManager.class));
+        SettingsService settingsService = new SettingsService(appSettingRepository, objectMapper,
+                mock(ApplicationEventPublisher.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new ProductController(productService, mock(ImageStore.class), mock(ImageDerivativeService.class)),
+                new SettingsController(settingsService)).build();
+
+        when(productRepository.findAllByOrderByNameAsc()).thenReturn(List.of(product()));
+        when(appSettingRepository.findBySettingKey(anyString()))
+                .thenReturn(Optional.of(new AppSetting("season_active", "true")));
+    }
+
+    @Test
+    void catalogRevalidationWithEtagSkipsRepository() throws Exception {
+        String etag = firstResponse("/api/products").getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(productRepository);
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void catalogRevalidationWithDateSkipsRepository() throws Exception {
+        String lastModified = firstResponse("/api/products").getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        clearInvocations(productRepository);
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void productRevalidationSkipsRepository() throws Exception {
+        MvcResult first = firstResponse("/api/products/7");
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        clearInvocations(productRepository);
+
+        mockMvc.perform(get("/api/products/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/7").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void gzipRevalidationMatchesItsOwnEtag() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(productRepository);
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void publicSettingsRevalidationSkipsRepository() throws Exception {
+        String etag = firstResponse("/api/settings/public").getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(appSettingRepository);
+
+        mockMvc.perform(get("/api/settings/public").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(appSettingRepository);
+    }
+
+    private MvcResult firstResponse(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+    }
+
+    private static Product product() {
+        Product product = new Product();
+        product.setId(7L);
+        product.setName("Alphonso");
+        product.setDescription("Ratnagiri Alphonso");
+        product.setOriginalPrice(Money.ofRupees("800"));
+        product.setStockKg(Quantity.ofKilograms(new BigDecimal("100")));
+        product.setActive(true);
+        product.setSpecial(false);
+        product.setUpdatedAt(LocalDateTime.of(2026, 4, 1, 9, 30));
+        return product;
+    }
+}
@@ -0,0 +1,51 @@
+package com.skmstore.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A database that already stores one payment on several orders still ends up with the unique
+ * index, with the payment kept on the oldest order.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:payment-id-migration;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class OrderPaymentIdMigrationTest {
+
+    @Autowired
+    private OrderPaymentIdMigration migration;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keepsThePaymentOnTheOldestOrderAndBuildsTheIndex() {
+        // As on a database where ddl-auto could not build the index over the duplicates
+        jdbcTemplate.execute("ALTER TABLE orders DROP CONSTRAINT IF EXISTS idx_order_payment_id");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_order_payment_id");
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Long.class);
+        assertThat(ids).hasSizeGreaterThanOrEqualTo(3);
+        jdbcTemplate.update("UPDATE orders SET payment_id = 'pay_retried' WHERE id IN (?, ?, ?)",
+                ids.get(0), ids.get(1), ids.get(2));
+
+        migration.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM orders WHERE payment_id = 'pay_retried'", Long.class))
+                .containsExactly(ids.get(0));
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE orders SET payment_id = 'pay_retried' WHERE id = ?",
+                ids.get(1))).isInstanceOf(DataIntegrityViolationException.class);
+
+        // Runs again on the next startup without changing anything
+        migration.run();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM orders WHERE payment_id = 'pay_retried'", Long.class))
+                .containsExactly(ids.get(0));
+    }
+}
@@ -0,0 +1,54 @@
+package com.skmstore.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A legacy image the store refuses must not stop the others, or the application, from starting.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:image-migration;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ProductImageMigrationTest {
+
+    @Autowired
+    private ProductImageMigration migration;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void skipsImagesTheStoreRejects() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE products ADD COLUMN IF NOT EXISTS image BLOB");
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+        Long bad = ids.get(0);
+        Long good = ids.get(1);
+        jdbcTemplate.update("UPDATE products SET image = ?, image_hash = NULL WHERE id = ?",
+                "not an image".getBytes(), bad);
+        jdbcTemplate.update("UPDATE products SET image = ?, image_hash = NULL WHERE id = ?", png(), good);
+
+        migration.run();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT image_hash FROM products WHERE id = ?", String.class, good))
+                .isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT image_hash FROM products WHERE id = ?", String.class, bad))
+                .isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE id = ? AND image IS NOT NULL",
+                Integer.class, bad)).isEqualTo(1);
+    }
+
+    private static byte[] png() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
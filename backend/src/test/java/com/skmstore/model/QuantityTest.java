@@ -0,0 +1,37 @@
+package com.skmstore.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Quantities are rounded to 10 g once, when read, so what is priced is what the NUMERIC(10,2)
+ * columns store.
+ */
+class QuantityTest {
+
+    @Test
+    void roundsToTenGramsHalfUp() {
+        assertThat(Quantity.ofKilograms("1.234").grams()).isEqualTo(1230);
+        assertThat(Quantity.ofKilograms("1.005").grams()).isEqualTo(1010);
+        assertThat(Quantity.ofKilograms("2.5").grams()).isEqualTo(2500);
+        assertThat(Quantity.ofKilograms("0.0049999").grams()).isZero();
+    }
+
+    @Test
+    void kilogramsAlwaysHaveTwoDecimals() {
+        assertThat(Quantity.ofKilograms("1.234").toKilograms()).isEqualTo(new BigDecimal("1.23"));
+        assertThat(Quantity.ofKilograms("3").toKilograms()).isEqualTo(new BigDecimal("3.00"));
+        assertThat(new QuantityConverter().convertToDatabaseColumn(Quantity.ofKilograms("1.236")))
+                .isEqualTo(new BigDecimal("1.24"));
+    }
+
+    @Test
+    void priceMatchesTheStoredWeight() {
+        Money price = Money.ofRupees(new BigDecimal("300"));
+        assertThat(price.times(Quantity.ofKilograms("1.234")))
+                .isEqualTo(price.times(Quantity.ofKilograms(new BigDecimal("1.23"))));
+    }
+}
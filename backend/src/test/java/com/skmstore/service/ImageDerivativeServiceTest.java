@@ -0,0 +1,59 @@
+package com.skmstore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decoding is bounded by the declared dimensions, not by the file size.
+ */
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void refusesACanvasAboveThePixelCapWithoutDecodingIt() throws IOException {
+        // One-bit pixels compress to a few kilobytes, far under the upload size limit
+        Path file = png(new BufferedImage(20_000, 4_000, BufferedImage.TYPE_BYTE_BINARY));
+        assertThat(Files.size(file)).isLessThan(1024 * 1024);
+
+        assertThatThrownBy(() -> ImageDerivativeService.read(file, ImageVariant.DETAIL.getMaxWidth()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("20000x4000");
+    }
+
+    @Test
+    void decodesLargePhotosSubsampledToTwiceTheVariantWidth() throws IOException {
+        Path file = png(new BufferedImage(6_000, 1_500, BufferedImage.TYPE_INT_RGB));
+
+        BufferedImage image = ImageDerivativeService.read(file, ImageVariant.DETAIL.getMaxWidth());
+
+        assertThat(image.getWidth()).isBetween(2 * ImageVariant.DETAIL.getMaxWidth(), 3 * ImageVariant.DETAIL.getMaxWidth());
+        assertThat(image.getHeight()).isEqualTo(image.getWidth() / 4);
+    }
+
+    @Test
+    void keepsSmallImagesAtFullSize() throws IOException {
+        Path file = png(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB));
+
+        BufferedImage image = ImageDerivativeService.read(file, ImageVariant.DETAIL.getMaxWidth());
+
+        assertThat(image.getWidth()).isEqualTo(300);
+        assertThat(image.getHeight()).isEqualTo(200);
+    }
+
+    private Path png(BufferedImage image) throws IOException {
+        Path file = dir.resolve(image.getWidth() + "x" + image.getHeight() + ".png");
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+}
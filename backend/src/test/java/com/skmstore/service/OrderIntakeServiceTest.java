@@ -0,0 +1,94 @@
+package com.skmstore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.response.OrderResponse;
+import com.skmstore.dto.response.OrderTicketResponse;
+import com.skmstore.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Requests that can only fail are refused up front rather than journalled and acknowledged.
+ */
+class OrderIntakeServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final SettingsService settingsService = mock(SettingsService.class);
+    private OrderIntakeService intake;
+
+    @BeforeEach
+    void setUp() {
+        intake = new OrderIntakeService(orderService, settingsService, new ObjectMapper(), true,
+                dir.resolve("orders.journal").toString(), 1, 1, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        intake.stop();
+    }
+
+    @Test
+    void closedSeasonIsRefusedWithoutATicket() {
+        when(settingsService.isSeasonActive()).thenReturn(false);
+        intake.start();
+
+        assertThatThrownBy(() -> intake.submit(1L, order(), "key-1"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("season has not started");
+    }
+
+    @Test
+    void overLongIdempotencyKeyIsRefusedWithoutATicket() {
+        when(settingsService.isSeasonActive()).thenReturn(true);
+        intake.start();
+
+        assertThatThrownBy(() -> intake.submit(1L, order(), "k".repeat(101)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Idempotency-Key");
+    }
+
+    @Test
+    void openingTheSeasonAdmitsRequests() {
+        when(settingsService.isSeasonActive()).thenReturn(false);
+        OrderResponse placed = new OrderResponse();
+        placed.setId(42L);
+        when(orderService.placeOrder(anyLong(), any(), anyString())).thenReturn(placed);
+        intake.start();
+        intake.onSeasonChanged(new SeasonChangedEvent(true));
+
+        OrderTicketResponse ticket = intake.submit(1L, order(), "key-1");
+
+        verify(orderService, timeout(5_000)).placeOrder(anyLong(), any(), anyString());
+        assertThat(ticket.getStatus()).isEqualTo("QUEUED");
+    }
+
+    private static PlaceOrderRequest order() {
+        PlaceOrderRequest.OrderItemRequest item = new PlaceOrderRequest.OrderItemRequest();
+        item.setProductId(1L);
+        item.setQuantityKg(BigDecimal.ONE);
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setAddressId(1L);
+        request.setItems(List.of(item));
+        return request;
+    }
+}
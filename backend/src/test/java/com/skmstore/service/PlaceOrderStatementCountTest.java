@@ -0,0 +1,161 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.request.ProductRequest;
+import com.skmstore.model.Address;
+import com.skmstore.model.User;
+import com.skmstore.repository.AddressRepository;
+import com.skmstore.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+
+/**
+ * Pins the number of statements {@code placeOrder} issues: products are read in one query,
+ * stock is taken and items inserted as JDBC batches, so a 12-line order costs the same as a
+ * one-line order. Hibernate's statistics count what goes through JPA; the JdbcTemplate
+ * batches bypass Hibernate, so prepared statements are also counted on the DataSource.
+ * The catalog rebuild that follows a commit runs on its own thread and is not part of the
+ * order, so it is switched off here to keep the global statistics exact.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PlaceOrderStatementCountTest {
+
+    // Key lookup, key claim, season setting, user, address, products, order insert, key update
+    private static final int HIBERNATE_STATEMENTS = 8;
+    // The above plus the stock decrement batch and the order_items batch
+    private static final int JDBC_STATEMENTS = 10;
+
+    private static final AtomicInteger prepared = new AtomicInteger();
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @MockitoSpyBean
+    private ProductService productService;
+    @Autowired
+    private SettingsService settingsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User buyer;
+    private Address address;
+
+    @BeforeEach
+    void setUp() {
+        doNothing().when(productService).onCatalogChanged(any());
+        settingsService.setSetting("season_active", "true");
+        buyer = userRepository.findByPhone("8888888888").orElseThrow();
+        address = addressRepository.findByUserId(buyer.getId()).get(0);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithOrderLines() {
+        List<Long> products = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            products.add(productService.createProduct(product("Statement Mango " + i)).getId());
+        }
+
+        int[] oneLine = placeOrder(products.subList(0, 1), "one-line");
+        int[] manyLines = placeOrder(products, "many-lines");
+
+        assertThat(oneLine).containsExactly(HIBERNATE_STATEMENTS, JDBC_STATEMENTS);
+        assertThat(manyLines).containsExactly(oneLine);
+    }
+
+    /** Returns the statements one order issued: {Hibernate, all JDBC}. */
+    private int[] placeOrder(List<Long> productIds, String idempotencyKey) {
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setAddressId(address.getId());
+        request.setItems(productIds.stream().map(id -> {
+            PlaceOrderRequest.OrderItemRequest item = new PlaceOrderRequest.OrderItemRequest();
+            item.setProductId(id);
+            item.setQuantityKg(new BigDecimal("2.50"));
+            return item;
+        }).toList());
+
+        statistics.clear();
+        prepared.set(0);
+        orderService.placeOrder(buyer.getId(), request, idempotencyKey);
+        return new int[] {(int) statistics.getPrepareStatementCount(), prepared.get()};
+    }
+
+    private static ProductRequest product(String name) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setOriginalPrice(new BigDecimal("400"));
+        request.setStockKg(new BigDecimal("100.00"));
+        request.setMinOrderKg(new BigDecimal("1.00"));
+        return request;
+    }
+
+    private static DataSource counting(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? counting(connection) : result;
+                });
+    }
+
+    private static Connection counting(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                        prepared.incrementAndGet();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.PreOrderAllocationResponse;
+import com.skmstore.model.Money;
+import com.skmstore.model.OrderStatus;
+import com.skmstore.model.PaymentStatus;
+import com.skmstore.model.Product;
+import com.skmstore.model.Quantity;
+import com.skmstore.repository.OrderBatchRepository;
+import com.skmstore.repository.PreOrderBatchRepository;
+import com.skmstore.repository.PreOrderBatchRepository.QueuedLine;
+import com.skmstore.repository.PreOrderBatchRepository.QueuedPreOrder;
+import com.skmstore.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A chunk that keeps losing its stock to live orders is left queued, and the run goes on to
+ * allocate the chunks after it as unpaid orders.
+ */
+class PreOrderAllocationServiceTest {
+
+    private final PreOrderBatchRepository preOrderBatchRepository = mock(PreOrderBatchRepository.class);
+    private final OrderBatchRepository orderBatchRepository = mock(OrderBatchRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+
+    private final PreOrderAllocationService service = new PreOrderAllocationService(preOrderBatchRepository,
+            orderBatchRepository, productRepository, inventoryService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(ApplicationEventPublisher.class), 1);
+
+    @Test
+    void conflictingChunkStaysQueuedAndLaterChunksAreAllocatedUnpaid() {
+        QueuedPreOrder contested = preOrder(1L, 1L);
+        QueuedPreOrder served = preOrder(2L, 2L);
+        when(productRepository.findAll()).thenReturn(List.of(product(1L), product(2L)));
+        when(inventoryService.getAvailableKg(any())).thenReturn(new BigDecimal("100.00"));
+        when(preOrderBatchRepository.findAllQueued()).thenReturn(List.of(contested, served));
+        when(preOrderBatchRepository.findQueued(List.of(1L))).thenReturn(List.of(contested));
+        when(preOrderBatchRepository.settle(anyList(), any())).thenReturn(true);
+        when(orderBatchRepository.insertOrders(anyList(), any())).thenReturn(List.of(100L));
+        // Live orders always get to product 1 first
+        when(inventoryService.take(anyMap(), any())).thenAnswer(invocation ->
+                invocation.<Map<Long, Quantity>>getArgument(0).containsKey(1L) ? List.of(1L) : List.of());
+
+        PreOrderAllocationResponse result = service.allocate();
+
+        assertThat(result.getAllocated()).isEqualTo(1);
+        assertThat(result.getStillQueued()).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderBatchRepository.NewOrder>> orders = ArgumentCaptor.forClass(List.class);
+        verify(orderBatchRepository).insertOrders(orders.capture(), any());
+        assertThat(orders.getValue()).singleElement().satisfies(order -> {
+            assertThat(order.userId()).isEqualTo(2L);
+            assertThat(order.status()).isEqualTo(OrderStatus.PENDING);
+            assertThat(order.paymentStatus()).isEqualTo(PaymentStatus.PENDING);
+        });
+    }
+
+    private static QueuedPreOrder preOrder(Long id, Long productId) {
+        return new QueuedPreOrder(id, id, id, true,
+                List.of(new QueuedLine(productId, Quantity.ofKilograms(new BigDecimal("2.00")))));
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Mango " + id);
+        product.setActive(true);
+        product.setOriginalPrice(Money.ofRupees(new BigDecimal("120.00")));
+        return product;
+    }
+}
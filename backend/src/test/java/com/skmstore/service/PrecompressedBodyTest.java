@@ -0,0 +1,39 @@
+package com.skmstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompressedBodyTest {
+
+    private final PrecompressedBody body = PrecompressedBody.of("{\"success\":true}".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void prefersGzipThenDeflate() {
+        assertThat(body.select("deflate, gzip").contentEncoding()).isEqualTo("gzip");
+        assertThat(body.select("deflate").contentEncoding()).isEqualTo("deflate");
+        assertThat(body.select("br").contentEncoding()).isNull();
+        assertThat(body.select(null).contentEncoding()).isNull();
+    }
+
+    @Test
+    void honoursZeroQuality() {
+        assertThat(body.select("gzip;q=0, deflate").contentEncoding()).isEqualTo("deflate");
+        assertThat(body.select("gzip;q=0").contentEncoding()).isNull();
+    }
+
+    @Test
+    void wildcardOnlyCoversCodingsNotNamed() {
+        assertThat(body.select("*").contentEncoding()).isEqualTo("gzip");
+        assertThat(body.select("gzip;q=0, *").contentEncoding()).isEqualTo("deflate");
+        assertThat(body.select("gzip;q=0, deflate;q=0, *").contentEncoding()).isNull();
+        assertThat(body.select("*;q=0, deflate").contentEncoding()).isEqualTo("deflate");
+    }
+
+    @Test
+    void etagDiffersPerEncoding() {
+        assertThat(body.select("gzip").etag()).isEqualTo(body.select(null).etag() + "-gzip");
+    }
+}
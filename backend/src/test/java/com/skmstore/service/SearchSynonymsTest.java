@@ -0,0 +1,55 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.response.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An alias and its canonical name must find the same products, whichever of the two the
+ * product's own text uses.
+ */
+class SearchSynonymsTest {
+
+    private final SearchSynonyms synonyms = new SearchSynonyms("hapus:alphonso,himayat:imam pasand");
+    // Ordinals follow this list: 0 says Alphonso, 1 only says Hapus, 2 only says Himayat
+    private final ProductSearchIndex index = ProductSearchIndex.build(List.of(
+            product(1, "Alphonso", "Devgad, naturally ripened"),
+            product(2, "Ratnagiri Hapus", "Straight from the orchard"),
+            product(3, "Himayat", "Hyderabad's favourite")), synonyms, null);
+
+    @Test
+    void aliasFindsProductsNamedEitherWay() {
+        assertThat(index.search(synonyms.expand("hapus"), 10)).containsExactlyInAnyOrder(0, 1);
+        assertThat(index.search(synonyms.expand("Alphonso"), 10)).containsExactlyInAnyOrder(0, 1);
+    }
+
+    @Test
+    void multiWordCanonicalNameFindsTheAliasedProduct() {
+        assertThat(index.search(synonyms.expand("imam pasand"), 10)).containsExactly(2);
+        assertThat(index.search(synonyms.expand("himayat"), 10)).containsExactly(2);
+    }
+
+    @Test
+    void prefixOfTheAliasStillMatches() {
+        assertThat(index.search(synonyms.expand("hap"), 10)).containsExactly(1);
+    }
+
+    @Test
+    void textWithoutAliasesIsReturnedAsIs() {
+        List<String> tokens = ProductSearchIndex.tokenize("ratnagiri mango");
+        assertThat(synonyms.canonicalize(tokens)).isSameAs(tokens);
+        assertThat(synonyms.canonicalize(ProductSearchIndex.tokenize("ratnagiri hapus box")))
+                .containsExactly("ratnagiri", "alphonso", "box");
+    }
+
+    private static ProductResponse product(long id, String name, String description) {
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,83 @@
+package com.skmstore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedIntakeJournalTest {
+
+    private static final byte PENDING = 1;
+    private static final byte DONE = 2;
+    private static final int SEGMENT_BYTES = 256;
+    // Enough to fill several segments
+    private static final int RECORDS = 30;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rollsOverAndDropsSegmentsOnceTheirRecordsAreDone() {
+        try (SegmentedIntakeJournal journal = new SegmentedIntakeJournal(dir.resolve("orders.journal"), SEGMENT_BYTES, 4)) {
+            List<Long> segments = new ArrayList<>();
+            for (int i = 0; i < RECORDS; i++) {
+                segments.add(journal.appendPending(PENDING, payload(i)));
+            }
+            assertThat(journal.segmentCount()).isGreaterThan(1);
+
+            // Later segments finishing first cannot be dropped ahead of the oldest
+            for (int i = RECORDS - 1; i > 0; i--) {
+                journal.appendDone(segments.get(i), DONE, payload(i));
+            }
+            assertThat(journal.segmentCount()).isGreaterThan(1);
+            assertThat(Files.exists(dir.resolve("orders.journal"))).isTrue();
+
+            journal.appendDone(segments.get(0), DONE, payload(0));
+            assertThat(journal.segmentCount()).isEqualTo(1);
+            assertThat(Files.exists(dir.resolve("orders.journal"))).isFalse();
+        }
+    }
+
+    @Test
+    void refusesWhenEverySegmentHoldsPendingRecords() {
+        try (SegmentedIntakeJournal journal = new SegmentedIntakeJournal(dir.resolve("orders.journal"), SEGMENT_BYTES, 2)) {
+            long last = 0;
+            for (int i = 0; last >= 0; i++) {
+                last = journal.appendPending(PENDING, payload(i));
+            }
+            assertThat(journal.segmentCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void replaysPendingRecordsAcrossSegmentsAfterRestart() {
+        Path base = dir.resolve("orders.journal");
+        List<Long> segments = new ArrayList<>();
+        try (SegmentedIntakeJournal journal = new SegmentedIntakeJournal(base, SEGMENT_BYTES, 4)) {
+            for (int i = 0; i < RECORDS; i++) {
+                segments.add(journal.appendPending(PENDING, payload(i)));
+            }
+            journal.appendDone(segments.get(1), DONE, payload(1));
+            assertThat(segments.get(RECORDS - 1)).isGreaterThan(segments.get(0));
+        }
+
+        try (SegmentedIntakeJournal journal = new SegmentedIntakeJournal(base, SEGMENT_BYTES, 4)) {
+            List<String> pending = new ArrayList<>();
+            List<String> done = new ArrayList<>();
+            journal.replay((segment, type, payload) ->
+                    (type == PENDING ? pending : done).add(new String(payload, StandardCharsets.UTF_8)));
+            assertThat(pending).hasSize(RECORDS).startsWith("record-0", "record-1");
+            assertThat(done).containsExactly("record-1");
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,60 @@
+package com.skmstore.service;
+
+import com.skmstore.model.Quantity;
+import com.skmstore.model.StockHold;
+import com.skmstore.repository.StockHoldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An expiry whose transaction fails must be retried, or the hold's stock stays taken until
+ * the next restart.
+ */
+class StockHoldServiceTest {
+
+    private final StockHoldRepository stockHoldRepository = mock(StockHoldRepository.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final StockHoldService service = new StockHoldService(stockHoldRepository, inventoryService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(ApplicationEventPublisher.class), 10, 10, 50);
+
+    @AfterEach
+    void tearDown() {
+        service.stopExpiryWheel();
+    }
+
+    @Test
+    void failedExpiryIsRetried() {
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(1);
+        StockHold row = new StockHold("hold-1", 7L, 1L, Quantity.ofKilograms("2.00"), false, expiredAt);
+        StockHoldRepository.HoldExpiry expiry = mock(StockHoldRepository.HoldExpiry.class);
+        when(expiry.getHoldId()).thenReturn("hold-1");
+        when(expiry.getExpiresAt()).thenReturn(expiredAt);
+        when(stockHoldRepository.findHoldExpiries()).thenReturn(List.of(expiry));
+        when(stockHoldRepository.findByHoldIdInForUpdate(List.of("hold-1")))
+                .thenThrow(new QueryTimeoutException("database unavailable"))
+                .thenReturn(List.of(row));
+
+        service.startExpiryWheel();
+        service.restoreHolds();
+
+        verify(inventoryService, timeout(5_000)).release(eq(Map.of(1L, Quantity.ofKilograms("2.00"))), eq(false), any());
+        verify(stockHoldRepository, times(2)).findByHoldIdInForUpdate(List.of("hold-1"));
+    }
+}
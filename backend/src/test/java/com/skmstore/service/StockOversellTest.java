@@ -0,0 +1,155 @@
+package com.skmstore.service;
+
+import com.skmstore.dto.request.PlaceOrderRequest;
+import com.skmstore.dto.request.ProductRequest;
+import com.skmstore.dto.response.ProductResponse;
+import com.skmstore.exception.BusinessException;
+import com.skmstore.model.Address;
+import com.skmstore.model.User;
+import com.skmstore.repository.AddressRepository;
+import com.skmstore.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buyers race for one product while an admin keeps saving it (with a stale form), toggling it
+ * and replacing its image, and once adds stock. Every kilogram must be accounted for: sold plus
+ * what is left equals what was ever stocked, so no save put back stock an order had taken.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:oversell;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false"
+})
+class StockOversellTest {
+
+    private static final int BUYERS = 8;
+    private static final int ATTEMPTS_PER_BUYER = 40;
+    private static final BigDecimal INITIAL_KG = new BigDecimal("200.00");
+    private static final BigDecimal RESTOCK_KG = new BigDecimal("50.00");
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private SettingsService settingsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentOrdersAndAdminEditsNeverOversell() throws Exception {
+        settingsService.setSetting("season_active", "true");
+        User buyer = userRepository.findByPhone("8888888888").orElseThrow();
+        Address address = addressRepository.findByUserId(buyer.getId()).get(0);
+        ProductResponse product = productService.createProduct(request(INITIAL_KG, null));
+        Long productId = product.getId();
+        // The admin form reads the catalog; do not wait for the background rebuild to include it
+        productService.refreshCatalog();
+        byte[] image = png();
+
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean buying = new AtomicBoolean(true);
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int b = 0; b < BUYERS; b++) {
+            buyers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_BUYER; i++) {
+                    try {
+                        orderService.placeOrder(buyer.getId(), order(address.getId(), productId), null);
+                        placed.incrementAndGet();
+                    } catch (BusinessException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> admin = pool.submit(() -> {
+            start.await();
+            boolean restocked = false;
+            while (buying.get()) {
+                // The form was loaded a moment ago; orders keep landing before it is saved
+                BigDecimal shown = productService.getCatalog().getProduct(productId).getStockKg();
+                Thread.sleep(2);
+                productService.updateProduct(productId, request(shown, shown));
+                productService.toggleSpecial(productId);
+                productService.updateImage(productId, new ByteArrayInputStream(image));
+                if (!restocked) {
+                    productService.updateProduct(productId, request(shown.add(RESTOCK_KG), shown));
+                    restocked = true;
+                }
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> future : buyers) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        buying.set(false);
+        admin.get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        BigDecimal left = jdbcTemplate.queryForObject(
+                "SELECT stock_kg FROM products WHERE id = ?", BigDecimal.class, productId);
+        BigDecimal sold = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity_kg), 0) FROM order_items WHERE product_id = ?", BigDecimal.class, productId);
+        assertThat(placed.get() + refused.get()).isEqualTo(BUYERS * ATTEMPTS_PER_BUYER);
+        assertThat(sold).isEqualByComparingTo(BigDecimal.valueOf(placed.get()));
+        assertThat(left).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(sold.add(left)).isEqualByComparingTo(INITIAL_KG.add(RESTOCK_KG));
+    }
+
+    private static ProductRequest request(BigDecimal stockKg, BigDecimal previousStockKg) {
+        ProductRequest request = new ProductRequest();
+        request.setName("Oversell Test Mango");
+        request.setDescription("Stock accounting under contention");
+        request.setOriginalPrice(new BigDecimal("500"));
+        request.setStockKg(stockKg);
+        request.setPreviousStockKg(previousStockKg);
+        request.setMinOrderKg(new BigDecimal("1.00"));
+        return request;
+    }
+
+    private static PlaceOrderRequest order(Long addressId, Long productId) {
+        PlaceOrderRequest.OrderItemRequest item = new PlaceOrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantityKg(BigDecimal.ONE);
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setAddressId(addressId);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private static byte[] png() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
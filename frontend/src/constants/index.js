@@ -29,6 +29,8 @@ export const DEMO_USER = { phone: '8888888888', password: 'user@123' };
 // API
 // Use environment variable for production, fallback to /api for local dev
 export const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || '/api';
+// Image URLs from the API are absolute paths (/api/products/...), so resolve them against the API host
+export const API_ORIGIN = API_BASE_URL.replace(/\/api\/?$/, '');
 
 // Google OAuth (replace with your Google Cloud Console client ID)
 export const GOOGLE_CLIENT_ID = '709713951478-5ij42t2bqfdk1finil8k0vci9075nvie.apps.googleusercontent.com';
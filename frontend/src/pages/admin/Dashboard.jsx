@@ -4,6 +4,7 @@ import Loader from '../../components/common/Loader';
 import { CURRENCY_SYMBOL } from '../../constants';
 
 const STATUS_COLORS = {
+  PENDING: 'bg-orange-100 text-orange-800',
   CONFIRMED: 'bg-yellow-100 text-yellow-800',
   SHIPPED: 'bg-purple-100 text-purple-800',
   OUT_FOR_DELIVERY: 'bg-indigo-100 text-indigo-800',
@@ -12,7 +13,7 @@ const STATUS_COLORS = {
 };
 
 const STATUS_ICONS = {
-  CONFIRMED: '📋', SHIPPED: '🚚', OUT_FOR_DELIVERY: '🏍️', DELIVERED: '✅', CANCELLED: '❌',
+  PENDING: '💳', CONFIRMED: '📋', SHIPPED: '🚚', OUT_FOR_DELIVERY: '🏍️', DELIVERED: '✅', CANCELLED: '❌',
 };
 
 const todayStr = () => new Date().toISOString().split('T')[0];
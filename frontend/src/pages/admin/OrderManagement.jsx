@@ -1,9 +1,11 @@
 import { useState, useEffect } from 'react';
 import api from '../../services/api';
+import { runExportJob } from '../../services/exportJobs';
 import Loader from '../../components/common/Loader';
 import { CURRENCY_SYMBOL } from '../../constants';
 
 const STATUS_COLORS = {
+  PENDING: 'bg-orange-100 text-orange-800',
   CONFIRMED: 'bg-yellow-100 text-yellow-800',
   SHIPPED: 'bg-purple-100 text-purple-800',
   OUT_FOR_DELIVERY: 'bg-indigo-100 text-indigo-800',
@@ -26,6 +28,10 @@ export default function OrderManagement() {
   const [savingCourier, setSavingCourier] = useState(null);
   const [dispatchData, setDispatchData] = useState({});
   const [dispatching, setDispatching] = useState(false);
+  // The "All" view is paged newest first; this is where the next page starts
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [exportProgress, setExportProgress] = useState(null);
 
   const fetchOrders = async (type, date) => {
     setLoading(true);
@@ -35,14 +41,34 @@ export default function OrderManagement() {
       else if (type === 'date') endpoint = `/admin/orders/by-date?date=${date || selectedDate}`;
       else endpoint = '/admin/orders';
       const { data } = await api.get(endpoint);
-      setOrders(data || []);
+      if (type === 'all') {
+        setOrders(data?.orders || []);
+        setNextCursor(data?.nextCursor || null);
+      } else {
+        setOrders(data || []);
+        setNextCursor(null);
+      }
     } catch {
       setOrders([]);
+      setNextCursor(null);
     } finally {
       setLoading(false);
     }
   };
 
+  const loadMoreOrders = async () => {
+    setLoadingMore(true);
+    try {
+      const { data } = await api.get('/admin/orders', { params: { cursor: nextCursor } });
+      setOrders((prev) => [...prev, ...(data?.orders || [])]);
+      setNextCursor(data?.nextCursor || null);
+    } catch {
+      alert('Failed to load more orders');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     if (view === 'date') fetchOrders('date', selectedDate);
     else fetchOrders(view);
@@ -106,20 +132,29 @@ export default function OrderManagement() {
   };
 
   const handleExportCSV = async () => {
+    if (view === 'all') {
+      // The full history is too big for one request; export it in the background
+      try {
+        await runExportJob({ type: 'ORDERS' }, (job) => setExportProgress(job.totalRows
+          ? Math.floor((job.rowsWritten * 100) / job.totalRows) : 0));
+      } catch (err) {
+        alert(err.response?.data?.message || err.message || 'Failed to export CSV');
+      } finally {
+        setExportProgress(null);
+      }
+      return;
+    }
     try {
-      let endpoint;
-      if (view === 'today') endpoint = '/admin/orders/today/export';
-      else if (view === 'date') endpoint = `/admin/orders/by-date/export?date=${selectedDate}`;
-      else endpoint = '/admin/orders/export';
+      const endpoint = view === 'today'
+        ? '/admin/orders/today/export'
+        : `/admin/orders/by-date/export?date=${selectedDate}`;
       const { data } = await api.get(endpoint, { responseType: 'blob' });
       const url = window.URL.createObjectURL(new Blob([data]));
       const link = document.createElement('a');
       link.href = url;
       link.download = view === 'date'
         ? `orders-${selectedDate}.csv`
-        : view === 'today'
-          ? `orders-today-${new Date().toISOString().slice(0, 10)}.csv`
-          : `orders-all-${new Date().toISOString().slice(0, 10)}.csv`;
+        : `orders-today-${new Date().toISOString().slice(0, 10)}.csv`;
       document.body.appendChild(link);
       link.click();
       link.remove();
@@ -305,9 +340,9 @@ export default function OrderManagement() {
               🚚 Batch Dispatch ({pendingCount})
             </button>
           )}
-          <button onClick={handleExportCSV}
-            className="px-4 py-2 rounded-lg font-semibold text-sm bg-yellow-500 text-green-900 hover:bg-yellow-400 transition">
-            ⬇ CSV
+          <button onClick={handleExportCSV} disabled={exportProgress !== null}
+            className="px-4 py-2 rounded-lg font-semibold text-sm bg-yellow-500 text-green-900 hover:bg-yellow-400 transition disabled:opacity-50">
+            {exportProgress !== null ? `Exporting ${exportProgress}%` : '⬇ CSV'}
           </button>
           <button onClick={() => fetchOrders(view, selectedDate)}
             className="px-4 py-2 rounded-lg font-semibold text-sm bg-gray-100 text-gray-700 hover:bg-gray-200 transition">
@@ -338,7 +373,7 @@ export default function OrderManagement() {
 
       {/* Status Filters */}
       <div className="flex gap-2 mb-6 flex-wrap">
-        {['ALL', ...STATUSES].map((s) => (
+        {['ALL', 'PENDING', ...STATUSES].map((s) => (
           <button key={s} onClick={() => setFilter(s)}
             className={`px-3 py-1 rounded-full text-sm font-medium transition ${filter === s ? 'bg-green-700 text-white' : 'bg-gray-100 text-gray-700 hover:bg-gray-200'}`}>
             {s.replace(/_/g, ' ')} ({s === 'ALL' ? orders.length : orders.filter((o) => o.status === s).length})
@@ -474,6 +509,14 @@ export default function OrderManagement() {
           })}
         </div>
       )}
+      {nextCursor && (
+        <div className="text-center mt-6">
+          <button onClick={loadMoreOrders} disabled={loadingMore}
+            className="px-6 py-2 rounded-lg font-semibold text-sm bg-gray-100 text-gray-700 hover:bg-gray-200 transition disabled:opacity-50">
+            {loadingMore ? 'Loading...' : 'Load more orders'}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -1,6 +1,7 @@
 import { useState, useEffect } from 'react';
 import api from '../../services/api';
 import Loader from '../../components/common/Loader';
+import { API_ORIGIN } from '../../constants';
 
 export default function ProductManagement() {
   const [products, setProducts] = useState([]);
@@ -9,8 +10,10 @@ export default function ProductManagement() {
   const [editing, setEditing] = useState(null);
   const [form, setForm] = useState({
     name: '', description: '', originalPrice: '',
-    salePrice: '', stockKg: '', minOrderKg: '1', attributes: {}, image: '',
+    salePrice: '', stockKg: '', minOrderKg: '1', attributes: {},
   });
+  const [imageFile, setImageFile] = useState(null);
+  const [imagePreview, setImagePreview] = useState('');
   const [error, setError] = useState('');
 
   const loadProducts = () => {
@@ -23,7 +26,9 @@ export default function ProductManagement() {
   useEffect(loadProducts, []);
 
   const resetForm = () => {
-    setForm({ name: '', description: '', originalPrice: '', salePrice: '', stockKg: '', minOrderKg: '1', attributes: {}, image: '' });
+    setForm({ name: '', description: '', originalPrice: '', salePrice: '', stockKg: '', minOrderKg: '1', attributes: {} });
+    setImageFile(null);
+    setImagePreview('');
     setEditing(null);
     setShowForm(false);
     setError('');
@@ -34,8 +39,12 @@ export default function ProductManagement() {
       name: p.name, description: p.description || '',
       originalPrice: p.originalPrice, salePrice: p.salePrice || '',
       stockKg: p.stockKg, minOrderKg: p.minOrderKg || '1', attributes: p.attributes || {},
-      image: p.image || '',
+      // Sent back so the server applies only the change made here, not a stale total
+      previousStockKg: p.stockKg,
     });
+    setImageFile(null);
+    const imageUrl = p.imageSizes?.thumb || p.imageUrl;
+    setImagePreview(imageUrl ? `${API_ORIGIN}${imageUrl}` : '');
     setEditing(p.id);
     setShowForm(true);
   };
@@ -51,10 +60,16 @@ export default function ProductManagement() {
       minOrderKg: parseFloat(form.minOrderKg),
     };
     try {
-      if (editing) {
-        await api.put(`/admin/products/${editing}`, payload);
-      } else {
-        await api.post('/admin/products', payload);
+      const { data } = editing
+        ? await api.put(`/admin/products/${editing}`, payload)
+        : await api.post('/admin/products', payload);
+      // The image goes up separately as multipart so the product request stays small
+      if (imageFile) {
+        const formData = new FormData();
+        formData.append('file', imageFile);
+        await api.post(`/admin/products/${data.id}/image`, formData, {
+          headers: { 'Content-Type': 'multipart/form-data' },
+        });
       }
       resetForm();
       setLoading(true);
@@ -132,28 +147,23 @@ export default function ProductManagement() {
 
             {/* Image Upload */}
             <div className="border rounded-lg p-2">
-              <label className="block text-sm font-medium text-gray-700 mb-1">Product Image (Max 500KB)</label>
-              <input type="file" accept="image/*"
+              <label className="block text-sm font-medium text-gray-700 mb-1">Product Image (Max 5MB)</label>
+              <input type="file" accept="image/jpeg,image/png,image/webp,image/gif"
                 onChange={(e) => {
                   const file = e.target.files[0];
                   if (file) {
-                    if (file.size > 500 * 1024) {
-                      setError("File size exceeds 500KB");
+                    if (file.size > 5 * 1024 * 1024) {
+                      setError("File size exceeds 5MB");
                       return;
                     }
-                    const reader = new FileReader();
-                    reader.onloadend = () => {
-                      // Strip the prefix to store only raw base64 data
-                      const base64String = reader.result.replace('data:', '').replace(/^.+,/, '');
-                      setForm({ ...form, image: base64String });
-                    };
-                    reader.readAsDataURL(file);
+                    setImageFile(file);
+                    setImagePreview(URL.createObjectURL(file));
                   }
                 }}
                 className="block w-full text-sm text-gray-500 file:mr-4 file:py-2 file:px-4 file:rounded-full file:border-0 file:text-sm file:font-semibold file:bg-green-50 file:text-green-700 hover:file:bg-green-100" />
-              {form.image && (
+              {imagePreview && (
                 <div className="mt-2">
-                  <img src={`data:image/jpeg;base64,${form.image}`} alt="Preview" className="h-20 w-20 object-cover rounded shadow" />
+                  <img src={imagePreview} alt="Preview" className="h-20 w-20 object-cover rounded shadow" />
                 </div>
               )}
             </div>
@@ -1,10 +1,12 @@
 import { useState, useEffect } from 'react';
 import api from '../../services/api';
+import { runExportJob } from '../../services/exportJobs';
 import Loader from '../../components/common/Loader';
 
 export default function UserManagement() {
   const [users, setUsers] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [exporting, setExporting] = useState(false);
 
   useEffect(() => {
     api.get('/admin/users')
@@ -13,11 +15,28 @@ export default function UserManagement() {
       .finally(() => setLoading(false));
   }, []);
 
+  const handleExport = async () => {
+    setExporting(true);
+    try {
+      await runExportJob({ type: 'USERS' });
+    } catch (err) {
+      alert(err.response?.data?.message || err.message || 'Failed to export users');
+    } finally {
+      setExporting(false);
+    }
+  };
+
   if (loading) return <Loader />;
 
   return (
     <div>
-      <h1 className="text-3xl font-bold text-green-800 mb-6">Users</h1>
+      <div className="flex items-center justify-between mb-6">
+        <h1 className="text-3xl font-bold text-green-800">Users</h1>
+        <button onClick={handleExport} disabled={exporting}
+          className="px-4 py-2 rounded-lg font-semibold text-sm bg-yellow-500 text-green-900 hover:bg-yellow-400 transition disabled:opacity-50">
+          {exporting ? 'Exporting...' : '⬇ CSV'}
+        </button>
+      </div>
 
       {/* Mobile Card View */}
       <div className="md:hidden space-y-3">
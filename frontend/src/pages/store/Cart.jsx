@@ -1,6 +1,7 @@
 import { Link } from 'react-router-dom';
 import { useCart } from '../../context/CartContext';
 import { useSeason } from '../../context/SeasonContext';
+import { API_ORIGIN } from '../../constants';
 
 export default function Cart() {
   const { items, updateQuantity, removeFromCart, totalPrice, clearCart } = useCart();
@@ -33,8 +34,8 @@ export default function Cart() {
               {/* Product Info - Grows to take space, but allows wrapping */}
               <div className="flex items-center gap-4 flex-1 min-w-[200px]">
                 <div className="text-4xl shrink-0 w-16 h-16 flex items-center justify-center bg-gray-50 rounded overflow-hidden">
-                  {item.image ? (
-                    <img src={`data:image/jpeg;base64,${item.image}`} alt={item.name} className="w-full h-full object-cover" />
+                  {item.imageUrl ? (
+                    <img src={`${API_ORIGIN}${item.imageSizes?.thumb || item.imageUrl}`} alt={item.name} className="w-full h-full object-cover" />
                   ) : (
                     <span>🥭</span>
                   )}
@@ -87,9 +88,15 @@ export default function Cart() {
         </div>
         {!seasonActive ? (
           <div>
-            <div className="bg-red-50 border border-red-200 text-red-700 p-3 rounded-lg text-center mb-3">
-              ⏳ Mango season is currently closed. Ordering is disabled.
+            <div className="bg-yellow-50 border border-yellow-200 text-yellow-800 p-3 rounded-lg text-center mb-3">
+              ⏳ Mango season is currently closed. Pre-order now and we will confirm your order when the season opens.
             </div>
+            <Link
+              to="/checkout"
+              className="block text-center bg-yellow-400 text-green-900 py-3 rounded-lg font-bold hover:bg-yellow-300 transition mb-3"
+            >
+              Pre-order →
+            </Link>
             <button onClick={clearCart} className="w-full text-center text-gray-500 hover:text-red-600 text-sm font-semibold">
               Clear Cart
             </button>
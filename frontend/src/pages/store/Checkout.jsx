@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate, Link } from 'react-router-dom';
 import api from '../../services/api';
 import { useCart } from '../../context/CartContext';
@@ -8,6 +8,8 @@ import { DELIVERY_ZONES } from '../../constants';
 export default function Checkout() {
   const { items, totalPrice, clearCart } = useCart();
   const { seasonActive } = useSeason();
+  // Off-season the checkout books a pre-order: no queue, no stock hold, no payment yet
+  const preOrder = seasonActive === false;
   const navigate = useNavigate();
   const [addresses, setAddresses] = useState([]);
   const [selectedAddress, setSelectedAddress] = useState(null);
@@ -19,10 +21,13 @@ export default function Checkout() {
   const [loading, setLoading] = useState(false);
   const [addressLoading, setAddressLoading] = useState(true);
   const [error, setError] = useState('');
+  const [hold, setHold] = useState(null);
+  const [queue, setQueue] = useState(null);
+  // One key per checkout: a retried or double-clicked order returns the first order instead of a second
+  const idempotencyKey = useRef(crypto.randomUUID());
 
   useEffect(() => {
     if (items.length === 0) { navigate('/cart'); return; }
-    if (seasonActive === false) { navigate('/cart'); return; }
     setAddressLoading(true);
     api.get('/addresses').then(({ data }) => {
       const list = Array.isArray(data) ? data : [];
@@ -35,6 +40,38 @@ export default function Checkout() {
     }).finally(() => setAddressLoading(false));
   }, [items.length, navigate]);
 
+  // At season opening checkout is admitted from a queue; join it and poll until it is our turn
+  useEffect(() => {
+    if (items.length === 0 || seasonActive === false) return;
+    let timer;
+    let cancelled = false;
+    const poll = (token) => api.get('/waiting-room/position', { headers: { 'X-Queue-Token': token } })
+      .then(({ data }) => update(data))
+      .catch(() => update(null));
+    const update = (data) => {
+      if (cancelled) return;
+      if (!data) { setQueue({ admitted: true }); return; }
+      setQueue(data);
+      if (!data.admitted) {
+        const delay = Math.min(Math.max(data.estimatedWaitSeconds, 2), 10) * 1000;
+        timer = setTimeout(() => poll(data.token), delay);
+      }
+    };
+    api.post('/waiting-room/join').then(({ data }) => update(data)).catch(() => update(null));
+    return () => { cancelled = true; clearTimeout(timer); };
+  }, [seasonActive]);
+
+  const queueHeaders = queue?.token ? { 'X-Queue-Token': queue.token } : {};
+
+  // Reserve the cart's stock while the customer checks out; the order consumes the hold
+  useEffect(() => {
+    if (items.length === 0 || seasonActive === false || !queue?.admitted) return;
+    const holdItems = items.map((i) => ({ productId: i.id, quantityKg: i.quantity }));
+    api.post('/orders/holds', { items: holdItems }, { headers: queueHeaders })
+      .then(({ data }) => setHold(data))
+      .catch((err) => setError(err.response?.data?.message || 'Some items are no longer in stock'));
+  }, [items, seasonActive, queue?.admitted]);
+
   const handleAddAddress = async (e) => {
     e.preventDefault();
     try {
@@ -47,6 +84,16 @@ export default function Checkout() {
     }
   };
 
+  // On busy days orders are queued and acknowledged with a ticket; wait until it is placed
+  const waitForTicket = async (ticketId) => {
+    for (;;) {
+      await new Promise((resolve) => setTimeout(resolve, 1000));
+      const { data } = await api.get(`/orders/tickets/${ticketId}`);
+      if (data.status === 'PLACED') return;
+      if (data.status === 'FAILED') throw { response: { data: { message: data.message } } };
+    }
+  };
+
   const handlePlaceOrder = async () => {
     if (!selectedAddress) { setError('Please select a delivery address'); return; }
     setError('');
@@ -56,7 +103,16 @@ export default function Checkout() {
         productId: i.id,
         quantityKg: i.quantity,
       }));
-      await api.post('/orders', { addressId: selectedAddress, items: orderItems });
+      if (preOrder) {
+        await api.post('/orders/pre-orders', { addressId: selectedAddress, items: orderItems });
+        clearCart();
+        navigate('/orders');
+        return;
+      }
+      const { data } = await api.post('/orders', { addressId: selectedAddress, items: orderItems, holdId: hold?.holdId }, {
+        headers: { 'Idempotency-Key': idempotencyKey.current, ...queueHeaders },
+      });
+      if (data?.ticketId) await waitForTicket(data.ticketId);
       clearCart();
       navigate('/orders');
     } catch (err) {
@@ -66,6 +122,27 @@ export default function Checkout() {
     }
   };
 
+  if (queue && !queue.admitted) {
+    return (
+      <div className="max-w-xl mx-auto px-4 py-16 text-center">
+        <h1 className="text-3xl font-bold text-green-800 mb-4">You're in the queue 🥭</h1>
+        <p className="text-gray-600 mb-6">
+          The season just opened and lots of mango lovers are checking out. Keep this page open;
+          checkout will open automatically when it's your turn.
+        </p>
+        <div className="bg-yellow-50 border border-yellow-200 rounded-lg p-6">
+          <p className="text-5xl font-bold text-green-700">{queue.position}</p>
+          <p className="text-sm text-gray-600 mt-1">customers ahead of you</p>
+          <p className="text-sm text-gray-500 mt-3">
+            Estimated wait: {queue.estimatedWaitSeconds < 60
+              ? 'less than a minute'
+              : `about ${Math.ceil(queue.estimatedWaitSeconds / 60)} min`}
+          </p>
+        </div>
+      </div>
+    );
+  }
+
   return (
     <div className="max-w-4xl mx-auto px-4 py-8">
       <h1 className="text-3xl font-bold text-green-800 mb-6">Checkout</h1>
@@ -178,8 +255,18 @@ export default function Checkout() {
               disabled={loading || !selectedAddress}
               className="w-full mt-4 bg-yellow-400 text-green-900 py-3 rounded-lg font-bold hover:bg-yellow-300 transition disabled:opacity-50"
             >
-              {loading ? 'Placing Order...' : 'Place Order'}
+              {loading ? 'Placing Order...' : preOrder ? 'Place Pre-order' : 'Place Order'}
             </button>
+            {hold && (
+              <p className="text-xs text-green-700 mt-2 text-center">
+                Stock reserved until {new Date(hold.expiresAt).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
+              </p>
+            )}
+            {preOrder && (
+              <p className="text-xs text-yellow-700 mt-2 text-center">
+                Pre-orders are confirmed in booking order when the season opens, as stock allows
+              </p>
+            )}
             <p className="text-xs text-gray-500 mt-2 text-center">
               Free delivery within delivery zones
             </p>
@@ -5,6 +5,7 @@ import { useCart } from '../../context/CartContext';
 import { useAuth } from '../../context/AuthContext';
 import { useSeason } from '../../context/SeasonContext';
 import Loader from '../../components/common/Loader';
+import { API_ORIGIN } from '../../constants';
 
 export default function ProductDetail() {
   const { id } = useParams();
@@ -52,9 +53,9 @@ export default function ProductDetail() {
 
       <div className="bg-white rounded-xl shadow-lg overflow-hidden grid grid-cols-1 md:grid-cols-2 gap-0">
         <div className="bg-yellow-50 flex items-center justify-center text-9xl py-16 min-h-[400px]">
-          {product.image ? (
+          {product.imageUrl ? (
             <img
-              src={`data:image/jpeg;base64,${product.image}`}
+              src={`${API_ORIGIN}${product.imageSizes?.detail || product.imageUrl}`}
               alt={product.name}
               className="w-full h-full object-cover max-h-[500px]"
             />
@@ -4,6 +4,7 @@ import api from '../../services/api';
 import { useCart } from '../../context/CartContext';
 import { useSeason } from '../../context/SeasonContext';
 import Loader from '../../components/common/Loader';
+import { API_ORIGIN } from '../../constants';
 
 function ProductCard({ p, seasonActive }) {
   const { addToCart, items, updateQuantity, removeFromCart } = useCart();
@@ -36,9 +37,9 @@ function ProductCard({ p, seasonActive }) {
     <div className="bg-white rounded-xl shadow-md hover:shadow-lg transition overflow-hidden flex flex-col">
       <Link to={`/products/${p.id}`} className="group">
         <div className="h-48 bg-yellow-50 flex items-center justify-center text-7xl group-hover:scale-105 transition-transform relative overflow-hidden">
-          {p.image ? (
+          {p.imageUrl ? (
             <img
-              src={`data:image/jpeg;base64,${p.image}`}
+              src={`${API_ORIGIN}${p.imageSizes?.card || p.imageUrl}`}
               alt={p.name}
               className="w-full h-full object-cover"
             />
@@ -137,8 +138,131 @@ function ProductCard({ p, seasonActive }) {
   );
 }
 
+function SearchBox({ onSearch, onClear }) {
+  const [query, setQuery] = useState('');
+  const [suggestions, setSuggestions] = useState([]);
+  const [open, setOpen] = useState(false);
+  const navigate = useNavigate();
+
+  useEffect(() => {
+    const q = query.trim();
+    if (!q) {
+      setSuggestions([]);
+      return undefined;
+    }
+    // Debounce keystrokes; the server answers from its in-memory index
+    const timer = setTimeout(() => {
+      api.get('/products/search', { params: { q, typeahead: true } })
+        .then(({ data }) => setSuggestions(data || []))
+        .catch(() => setSuggestions([]));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [query]);
+
+  const handleSubmit = (e) => {
+    e.preventDefault();
+    setOpen(false);
+    if (query.trim()) onSearch(query.trim());
+    else onClear();
+  };
+
+  return (
+    <form onSubmit={handleSubmit} className="relative mb-6 max-w-md">
+      <input type="search" value={query} placeholder="Search mangoes, varieties, origins..."
+        onChange={(e) => {
+          setQuery(e.target.value);
+          setOpen(true);
+          if (!e.target.value) onClear();
+        }}
+        onBlur={() => setTimeout(() => setOpen(false), 150)}
+        className="w-full px-4 py-2 border rounded-lg outline-none focus:ring-2 focus:ring-green-500" />
+      {open && suggestions.length > 0 && (
+        <ul className="absolute z-10 w-full bg-white border rounded-lg shadow-lg mt-1 overflow-hidden">
+          {suggestions.map((s) => (
+            <li key={s.id}>
+              <button type="button" onMouseDown={() => navigate(`/products/${s.id}`)}
+                className="w-full flex items-center gap-3 px-4 py-2 text-left hover:bg-green-50">
+                {s.imageUrl
+                  ? <img src={`${API_ORIGIN}${s.imageUrl}`} alt="" className="h-8 w-8 object-cover rounded" />
+                  : <span className="text-2xl">🥭</span>}
+                <span className="flex-1 text-gray-800">{s.name}</span>
+                <span className="text-sm text-green-700 font-semibold">₹{s.effectivePrice}/kg</span>
+              </button>
+            </li>
+          ))}
+        </ul>
+      )}
+    </form>
+  );
+}
+
+const PRICE_BAND_LABELS = {
+  'under-300': 'Under ₹300',
+  '300-500': '₹300 – ₹500',
+  '500-700': '₹500 – ₹700',
+  '700-plus': '₹700+',
+};
+
+function Chip({ active, disabled, onClick, children }) {
+  return (
+    <button type="button" onClick={onClick} disabled={disabled && !active}
+      className={`px-3 py-1 rounded-full text-sm border transition ${active
+        ? 'bg-green-600 text-white border-green-600'
+        : 'bg-white text-gray-700 border-gray-300 hover:border-green-500 disabled:opacity-40'}`}>
+      {children}
+    </button>
+  );
+}
+
+function FilterBar({ facets, filters, onChange }) {
+  if (!facets) return null;
+
+  const toggleAttr = (key, value) => {
+    const current = filters.attr[key] || [];
+    const next = current.includes(value) ? current.filter((v) => v !== value) : [...current, value];
+    onChange({ ...filters, attr: { ...filters.attr, [key]: next } });
+  };
+  const togglePrice = (band) => {
+    const next = filters.price.includes(band) ? filters.price.filter((b) => b !== band) : [...filters.price, band];
+    onChange({ ...filters, price: next });
+  };
+
+  return (
+    <div className="mb-6 space-y-3">
+      {Object.entries(facets.attributeFacets).map(([key, values]) => (
+        <div key={key} className="flex flex-wrap items-center gap-2">
+          <span className="text-sm font-semibold text-gray-600 capitalize w-24">{key}</span>
+          {Object.entries(values).map(([value, count]) => (
+            <Chip key={value} active={(filters.attr[key] || []).includes(value)} disabled={count === 0}
+              onClick={() => toggleAttr(key, value)}>
+              {value} ({count})
+            </Chip>
+          ))}
+        </div>
+      ))}
+      <div className="flex flex-wrap items-center gap-2">
+        <span className="text-sm font-semibold text-gray-600 w-24">Price/kg</span>
+        {Object.entries(facets.priceBandFacets).map(([band, count]) => (
+          <Chip key={band} active={filters.price.includes(band)} disabled={count === 0} onClick={() => togglePrice(band)}>
+            {PRICE_BAND_LABELS[band] || band} ({count})
+          </Chip>
+        ))}
+        <Chip active={filters.inStock} disabled={facets.inStockCount === 0}
+          onClick={() => onChange({ ...filters, inStock: !filters.inStock })}>
+          In stock ({facets.inStockCount})
+        </Chip>
+      </div>
+    </div>
+  );
+}
+
+const NO_FILTERS = { attr: {}, price: [], inStock: false };
+
 export default function Products() {
   const [products, setProducts] = useState([]);
+  const [results, setResults] = useState(null);
+  const [filters, setFilters] = useState(NO_FILTERS);
+  const [filtered, setFiltered] = useState(null);
   const [loading, setLoading] = useState(true);
   const { seasonActive } = useSeason();
 
@@ -149,26 +273,55 @@ export default function Products() {
       .finally(() => setLoading(false));
   }, []);
 
+  useEffect(() => {
+    // Filtering and facet counts are computed server-side
+    const params = new URLSearchParams();
+    Object.entries(filters.attr).forEach(([key, values]) => values.forEach((v) => params.append('attr', `${key}:${v}`)));
+    filters.price.forEach((band) => params.append('price', band));
+    if (filters.inStock) params.append('inStock', 'true');
+    api.get('/products/filter', { params })
+      .then(({ data }) => setFiltered(data))
+      .catch(() => { });
+  }, [filters]);
+
+  const handleSearch = (q) => {
+    api.get('/products/search', { params: { q } })
+      .then(({ data }) => setResults(data || []))
+      .catch(() => setResults([]));
+  };
+
   if (loading) return <Loader />;
 
+  const hasFilters = filters.inStock || filters.price.length > 0
+    || Object.values(filters.attr).some((values) => values.length > 0);
+  const shown = results ?? (hasFilters && filtered ? filtered.products : products);
+
   return (
     <div className="max-w-7xl mx-auto px-4 py-8">
       <h1 className="text-3xl font-bold text-green-800 mb-8">Our Mangoes</h1>
 
+      <SearchBox onSearch={handleSearch} onClear={() => setResults(null)} />
+      {results === null && <FilterBar facets={filtered} filters={filters} onChange={setFilters} />}
+
       {!seasonActive && (
         <div className="bg-red-50 border border-red-200 text-red-700 p-4 rounded-lg mb-6 text-center">
           ⏳ Mango season is currently closed. You can browse our products but ordering is disabled.
         </div>
       )}
 
-      {products.length === 0 ? (
+      {(results !== null || hasFilters) && shown.length === 0 ? (
+        <div className="text-center py-20 text-gray-500">
+          <p className="text-5xl mb-4">🔍</p>
+          <p className="text-lg">No mangoes match your search.</p>
+        </div>
+      ) : shown.length === 0 ? (
         <div className="text-center py-20 text-gray-500">
           <p className="text-5xl mb-4">🥭</p>
           <p className="text-lg">No products available right now. Check back during mango season!</p>
         </div>
       ) : (
         <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4 gap-6">
-          {products.map((p) => <ProductCard key={p.id} p={p} seasonActive={seasonActive} />)}
+          {shown.map((p) => <ProductCard key={p.id} p={p} seasonActive={seasonActive} />)}
         </div>
       )}
     </div>
@@ -3,6 +3,7 @@ import api from '../../services/api';
 import Loader from '../../components/common/Loader';
 
 const STATUS_COLORS = {
+  PENDING: 'bg-orange-100 text-orange-800',
   CONFIRMED: 'bg-yellow-100 text-yellow-800',
   SHIPPED: 'bg-purple-100 text-purple-800',
   OUT_FOR_DELIVERY: 'bg-indigo-100 text-indigo-800',
@@ -10,23 +11,83 @@ const STATUS_COLORS = {
   CANCELLED: 'bg-red-100 text-red-800',
 };
 
+const PRE_ORDER_LABELS = {
+  QUEUED: 'Waiting for season',
+  ALLOCATED: 'Allocated',
+  UNFULFILLED: 'Could not be fulfilled',
+  CANCELLED: 'Cancelled',
+};
+
 export default function Orders() {
   const [orders, setOrders] = useState([]);
+  const [preOrders, setPreOrders] = useState([]);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
-    api.get('/orders')
-      .then(({ data }) => setOrders(data))
-      .catch(() => {})
-      .finally(() => setLoading(false));
+    Promise.all([
+      api.get('/orders').then(({ data }) => setOrders(data)).catch(() => {}),
+      api.get('/orders/pre-orders').then(({ data }) => setPreOrders(data || [])).catch(() => {}),
+    ]).finally(() => setLoading(false));
   }, []);
 
+  const cancelPreOrder = async (id) => {
+    try {
+      await api.delete(`/orders/pre-orders/${id}`);
+      setPreOrders(preOrders.map((p) => (p.id === id ? { ...p, status: 'CANCELLED' } : p)));
+    } catch (err) {
+      alert(err.response?.data?.message || 'Failed to cancel pre-order');
+    }
+  };
+
+  // An allocated pre-order becomes an unpaid PENDING order; paying confirms it for shipping
+  const payForOrder = async (id) => {
+    try {
+      const { data } = await api.post(`/orders/${id}/pay`, {});
+      setOrders(orders.map((o) => (o.id === id ? data : o)));
+    } catch (err) {
+      alert(err.response?.data?.message || 'Payment failed');
+    }
+  };
+
   if (loading) return <Loader />;
 
   return (
     <div className="max-w-4xl mx-auto px-4 py-8">
       <h1 className="text-3xl font-bold text-green-800 mb-6">My Orders</h1>
 
+      {preOrders.length > 0 && (
+        <div className="mb-8">
+          <h2 className="text-xl font-semibold text-green-800 mb-3">Pre-orders</h2>
+          <div className="space-y-3">
+            {preOrders.map((pre) => (
+              <div key={pre.id} className="bg-yellow-50 border border-yellow-200 rounded-lg p-4">
+                <div className="flex justify-between items-start">
+                  <div>
+                    <p className="text-sm text-gray-500">Pre-order #{pre.id}</p>
+                    <p className="text-sm">
+                      {pre.items.map((i) => `${i.productName} × ${i.quantityKg} kg`).join(', ')}
+                    </p>
+                    {pre.orderId && <p className="text-sm text-green-700">Order #{pre.orderId} — pay below to confirm it</p>}
+                    {pre.note && <p className="text-sm text-red-600">{pre.note}</p>}
+                  </div>
+                  <div className="text-right">
+                    <span className="text-sm font-semibold text-green-800">{PRE_ORDER_LABELS[pre.status]}</span>
+                    {pre.status === 'QUEUED' && (
+                      <button
+                        onClick={() => cancelPreOrder(pre.id)}
+                        className="block ml-auto mt-1 text-xs text-red-600 hover:underline"
+                      >
+                        Cancel
+                      </button>
+                    )}
+                  </div>
+                </div>
+              </div>
+            ))}
+          </div>
+        </div>
+      )}
+
       {orders.length === 0 ? (
         <div className="text-center py-20 text-gray-500">
           <p className="text-5xl mb-4">📦</p>
@@ -45,9 +106,19 @@ export default function Orders() {
                     })}
                   </p>
                 </div>
-                <span className={`px-3 py-1 rounded-full text-sm font-semibold ${STATUS_COLORS[order.status] || 'bg-gray-100 text-gray-800'}`}>
-                  {order.status}
-                </span>
+                <div className="text-right">
+                  <span className={`px-3 py-1 rounded-full text-sm font-semibold ${STATUS_COLORS[order.status] || 'bg-gray-100 text-gray-800'}`}>
+                    {order.status === 'PENDING' ? 'AWAITING PAYMENT' : order.status}
+                  </span>
+                  {order.status === 'PENDING' && order.paymentStatus === 'PENDING' && (
+                    <button
+                      onClick={() => payForOrder(order.id)}
+                      className="block ml-auto mt-2 bg-green-600 text-white text-sm px-4 py-1 rounded-lg hover:bg-green-700"
+                    >
+                      Pay ₹{order.totalAmount}
+                    </button>
+                  )}
+                </div>
               </div>
 
               <div className="space-y-2 border-t pt-3">
@@ -23,6 +23,13 @@ api.interceptors.response.use(
     return response;
   },
   (error) => {
+    // Shed by the server's concurrency limiter: retry a read once after the advised delay
+    const { config, response } = error;
+    if (response?.status === 503 && config?.method === 'get' && !config._retried) {
+      config._retried = true;
+      const seconds = Number(response.headers['retry-after']) || 1;
+      return new Promise((resolve) => setTimeout(resolve, seconds * 1000)).then(() => api(config));
+    }
     if (error.response?.status === 401) {
       localStorage.removeItem('token');
       localStorage.removeItem('user');
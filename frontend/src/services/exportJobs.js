@@ -0,0 +1,25 @@
+import api from './api';
+
+// Big exports run as background jobs on the server: start one, poll until the file is ready, then download it
+export async function runExportJob(request, onProgress) {
+  const { data: started } = await api.post('/admin/exports', request);
+  let job = started;
+  while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+    onProgress?.(job);
+    await new Promise((resolve) => setTimeout(resolve, 1500));
+    ({ data: job } = await api.get(`/admin/exports/${job.id}`));
+  }
+  onProgress?.(job);
+  if (job.status !== 'DONE') throw new Error(job.error || 'Export was cancelled');
+
+  const response = await api.get(`/admin/exports/${job.id}/download`, { responseType: 'blob' });
+  const disposition = response.headers['content-disposition'] || '';
+  const url = window.URL.createObjectURL(new Blob([response.data]));
+  const link = document.createElement('a');
+  link.href = url;
+  link.download = disposition.split('filename=')[1] || `${request.type.toLowerCase()}.csv.gz`;
+  document.body.appendChild(link);
+  link.click();
+  link.remove();
+  window.URL.revokeObjectURL(url);
+}